@@ -0,0 +1,165 @@
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+//Batch program: searches every position of a file (text or binary, see PositionReader) on all
+//processors and writes one result line per position, in the order of the input. Output columns are
+//separated by tabs: position, best move, score, depth, nodes (or "error" and the reason for a text
+//line that is not a position). Only a fixed number of positions is read ahead of the
+//writer, so memory stays the same however long the file is.
+public class BatchAnalyzer
+{
+    private static final int TABLE_ENTRIES = 1 << 18;   //table size of each thread
+    private static final int AHEAD = 4;                 //positions read ahead per thread
+    
+    private final SearchLimits limits;                  //limits of each search
+    private final int threads;                          //search threads
+    private final ThreadLocal<MiniChessEngine> engines; //engine of each thread, one per board size
+    
+    //Constructor of BatchAnalyzer class
+    public BatchAnalyzer(SearchLimits limits, int threads)
+    {
+        this.limits = limits;
+        this.threads = threads;
+        this.engines = new ThreadLocal<MiniChessEngine>();
+    }
+    
+    //Method searches every position read from in and writes results to out, returning how many there were
+    public long analyze(PositionReader in, Writer out) throws IOException
+    {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ArrayDeque<Future<String>> pending = new ArrayDeque<Future<String>>();
+        long count = 0;
+        
+        try
+        {
+            while(true)
+            {
+                if(pending.size() == threads * AHEAD)   //wait for oldest result before reading on
+                    write(pending.removeFirst(), out);
+                
+                final Position position;
+                try
+                {
+                    position = in.next();
+                }
+                catch(IllegalArgumentException e)       //line is not a position, report it in order
+                {
+                    pending.addLast(CompletableFuture.completedFuture("error\t" + e.getMessage()));
+                    count++;
+                    continue;
+                }
+                
+                if(position == null)
+                    break;
+                
+                pending.addLast(pool.submit(new Callable<String>()
+                {
+                    public String call()
+                    {
+                        return analyze(position);
+                    }
+                }));
+                count++;
+            }
+            
+            while(!pending.isEmpty())
+                write(pending.removeFirst(), out);
+            
+            out.flush();
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+        
+        return count;
+    }
+    
+    //Method writes one result line once it is ready
+    private void write(Future<String> result, Writer out) throws IOException
+    {
+        try
+        {
+            out.write(result.get());
+            out.write('\n');
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a result", e);
+        }
+        catch(ExecutionException e)
+        {
+            throw new IOException("Search failed", e.getCause());
+        }
+    }
+    
+    //Method searches one position and builds its result line
+    private String analyze(Position position)
+    {
+        BitBoard board = position.toBoard();
+        SearchResult result = engine(board.size()).search(board, position.side(), limits);
+        return position + "\t" + Move.toString(result.bestMove(), board.size()) + "\t" + result.score()
+            + "\t" + result.depth() + "\t" + result.nodes();
+    }
+    
+    //Method returns engine of this thread, with a cleared table and history so results do not depend on
+    //earlier positions
+    private MiniChessEngine engine(int size)
+    {
+        MiniChessEngine engine = engines.get();
+        if(engine == null || engine.size() != size)
+        {
+            engine = new MiniChessEngine(size, limits.depth() > 0 ? limits.depth() : MiniChessEngine.DEPTH_LIMIT, 1,
+                new TranspositionTable(TABLE_ENTRIES, TranspositionTable.Replacement.DEPTH_PREFERRED));
+            engines.set(engine);
+        }
+        else
+        {
+            engine.newGame();
+        }
+        
+        return engine;
+    }
+    
+    public static void main(String[] args) throws IOException
+    {
+        if(args.length < 2)
+        {
+            System.out.println("Usage: BatchAnalyzer <positions file> <output file or -> [depth] [milliseconds] [nodes] [threads]");
+            return;
+        }
+        
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        long timeMillis = args.length > 3 ? Long.parseLong(args[3]) : 0;
+        long nodes = args.length > 4 ? Long.parseLong(args[4]) : 0;
+        int threads = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+        
+        BatchAnalyzer analyzer = new BatchAnalyzer(new SearchLimits(depth, timeMillis, nodes), threads);
+        
+        PositionReader in = new PositionReader(new FileInputStream(args[0]));
+        Writer out = new BufferedWriter(new OutputStreamWriter(args[1].equals("-") ? System.out : new FileOutputStream(args[1]), "US-ASCII"));
+        try
+        {
+            long start = System.nanoTime();
+            long count = analyzer.analyze(in, out);
+            System.err.printf("%d positions in %.1f s%n", count, (System.nanoTime() - start) / 1e9);
+        }
+        finally
+        {
+            in.close();
+            out.close();
+        }
+    }
+}
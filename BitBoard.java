@@ -0,0 +1,320 @@
+//This class stores a mini chess board as bitboards (one long per piece kind and side)
+public class BitBoard
+{
+    public static final char EMPTY = ' ';       //empty slot
+    
+    //piece indexes (computer pieces first, then player pieces)
+    public static final int NONE = -1;
+    public static final int COMP_KING = 0;
+    public static final int COMP_ROOK = 1;
+    public static final int COMP_BISHOP = 2;
+    public static final int PLAYER_KING = 3;
+    public static final int PLAYER_ROOK = 4;
+    public static final int PLAYER_BISHOP = 5;
+    public static final int PIECES = 6;
+    
+    //sides
+    public static final int COMPUTER = 0;
+    public static final int PLAYER = 1;
+    
+    private static final String SYMBOLS = "KRBkrb";    //symbol of each piece index
+    
+    private final int size;                 //size of board (at most 8x8)
+    private final long[] pieces;            //one bitboard per piece index
+    private final long[] occupied;          //one bitboard per side
+    private final long innerMask;           //squares not on the edge of the board
+    private final int[] pieceSquare;        //score of each piece index on each square
+    private long key;                       //Zobrist key of the pieces on the board
+    private int material;                   //sum of piece scores, kept up to date on every change
+    
+    //Constructor creates an empty board
+    public BitBoard(int size)
+    {
+        Tables tables = Tables.forSize(size);   //checks size
+        
+        this.size = size;
+        this.pieces = new long[PIECES];
+        this.occupied = new long[2];
+        this.innerMask = tables.innerMask();
+        this.pieceSquare = tables.pieceSquare();
+    }
+    
+    //Constructor makes a copy of another board
+    public BitBoard(BitBoard other)
+    {
+        this.size = other.size;
+        this.pieces = other.pieces.clone();
+        this.occupied = other.occupied.clone();
+        this.innerMask = other.innerMask;
+        this.key = other.key;
+        this.pieceSquare = other.pieceSquare;
+        this.material = other.material;
+    }
+    
+    //Method builds a board from its rows (top row first, '.' or ' ' for empty squares)
+    public static BitBoard fromRows(String... rows)
+    {
+        BitBoard board = new BitBoard(rows.length);
+        
+        for(int i = 0; i < rows.length; i++)
+        {
+            if(rows[i].length() != rows.length)
+                throw new IllegalArgumentException("Row " + i + " must have " + rows.length + " squares: " + rows[i]);
+            
+            for(int j = 0; j < rows.length; j++)
+            {
+                char c = rows[i].charAt(j);
+                if(c != '.' && c != EMPTY && pieceOf(c) == NONE)
+                    throw new IllegalArgumentException("Unknown piece '" + c + "' in row " + i);
+                
+                board.set(i, j, c == '.' ? EMPTY : c);
+            }
+        }
+        
+        return board;
+    }
+    
+    //Method returns size of board
+    public int size()
+    {
+        return size;
+    }
+    
+    //Method returns square index of row i and column j
+    public int square(int i, int j)
+    {
+        return i * size + j;
+    }
+    
+    //Method returns piece index of a symbol
+    public static int pieceOf(char c)
+    {
+        return SYMBOLS.indexOf(c);
+    }
+    
+    //Method returns symbol of a piece index
+    public static char symbolOf(int piece)
+    {
+        return piece == NONE ? EMPTY : SYMBOLS.charAt(piece);
+    }
+    
+    //Method returns side that owns a piece index
+    public static int sideOf(int piece)
+    {
+        return piece < PLAYER_KING ? COMPUTER : PLAYER;
+    }
+    
+    //Method returns piece index on a square
+    public int pieceAt(int sq)
+    {
+        long bit = 1L << sq;
+        
+        if(((occupied[COMPUTER] | occupied[PLAYER]) & bit) == 0)
+            return NONE;
+        
+        for(int p = 0; p < PIECES; p++)
+            if((pieces[p] & bit) != 0)
+                return p;
+        
+        return NONE;
+    }
+    
+    //Method returns symbol on row i and column j
+    public char get(int i, int j)
+    {
+        return symbolOf(pieceAt(square(i, j)));
+    }
+    
+    //Method puts a symbol on row i and column j
+    public void set(int i, int j, char c)
+    {
+        int sq = square(i, j);
+        long bit = 1L << sq;
+        
+        int old = pieceAt(sq);
+        if(old != NONE)
+        {
+            pieces[old] &= ~bit;
+            occupied[sideOf(old)] &= ~bit;
+            key ^= Zobrist.piece(old, sq);
+            material -= pieceSquare[old * 64 + sq];
+        }
+        
+        int p = pieceOf(c);
+        if(p != NONE)
+        {
+            pieces[p] |= bit;
+            occupied[sideOf(p)] |= bit;
+            key ^= Zobrist.piece(p, sq);
+            material += pieceSquare[p * 64 + sq];
+        }
+    }
+    
+    //Method moves piece from one square to another, removing any piece it lands on
+    public void move(int fromI, int fromJ, int toI, int toJ)
+    {
+        int from = square(fromI, fromJ);
+        int to = square(toI, toJ);
+        long fromBit = 1L << from;
+        long toBit = 1L << to;
+        
+        int piece = pieceAt(from);
+        if(piece == NONE)
+            return;
+        
+        int captured = pieceAt(to);
+        if(captured != NONE)
+        {
+            pieces[captured] &= ~toBit;
+            occupied[sideOf(captured)] &= ~toBit;
+            key ^= Zobrist.piece(captured, to);
+            material -= pieceSquare[captured * 64 + to];
+        }
+        
+        pieces[piece] ^= fromBit | toBit;
+        occupied[sideOf(piece)] ^= fromBit | toBit;
+        key ^= Zobrist.piece(piece, from) ^ Zobrist.piece(piece, to);
+        material += pieceSquare[piece * 64 + to] - pieceSquare[piece * 64 + from];
+    }
+    
+    //Method applies a move in place
+    public void makeMove(int move)
+    {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        long fromBit = 1L << from;
+        long toBit = 1L << to;
+        int piece = Move.piece(move);
+        int captured = Move.captured(move);
+        
+        if(captured != NONE)
+        {
+            pieces[captured] ^= toBit;
+            occupied[sideOf(captured)] ^= toBit;
+            key ^= Zobrist.piece(captured, to);
+            material -= pieceSquare[captured * 64 + to];
+        }
+        
+        pieces[piece] ^= fromBit | toBit;
+        occupied[sideOf(piece)] ^= fromBit | toBit;
+        key ^= Zobrist.piece(piece, from) ^ Zobrist.piece(piece, to);
+        material += pieceSquare[piece * 64 + to] - pieceSquare[piece * 64 + from];
+    }
+    
+    //Method takes back a move applied by makeMove
+    public void unmakeMove(int move)
+    {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        long fromBit = 1L << from;
+        long toBit = 1L << to;
+        int piece = Move.piece(move);
+        int captured = Move.captured(move);
+        
+        pieces[piece] ^= fromBit | toBit;
+        occupied[sideOf(piece)] ^= fromBit | toBit;
+        key ^= Zobrist.piece(piece, from) ^ Zobrist.piece(piece, to);
+        material -= pieceSquare[piece * 64 + to] - pieceSquare[piece * 64 + from];
+        
+        if(captured != NONE)
+        {
+            pieces[captured] ^= toBit;
+            occupied[sideOf(captured)] ^= toBit;
+            key ^= Zobrist.piece(captured, to);
+            material += pieceSquare[captured * 64 + to];
+        }
+    }
+    
+    //Method returns true if row i and column j holds a computer piece
+    public boolean isComputer(int i, int j)
+    {
+        return (occupied[COMPUTER] & (1L << square(i, j))) != 0;
+    }
+    
+    //Method returns true if row i and column j holds a player piece
+    public boolean isPlayer(int i, int j)
+    {
+        return (occupied[PLAYER] & (1L << square(i, j))) != 0;
+    }
+    
+    //Method returns true if row i and column j is empty
+    public boolean isEmpty(int i, int j)
+    {
+        return ((occupied[COMPUTER] | occupied[PLAYER]) & (1L << square(i, j))) == 0;
+    }
+    
+    //Method checks if king is alive
+    public boolean hasKing(char king)
+    {
+        return pieces[pieceOf(king)] != 0;
+    }
+    
+    //Method returns Zobrist key of the pieces on the board
+    public long key()
+    {
+        return key;
+    }
+    
+    //Method returns sum of piece scores (computer pieces positive, player pieces negative)
+    public int material()
+    {
+        return material;
+    }
+    
+    //Method returns bitboard of a piece index
+    public long pieces(int piece)
+    {
+        return pieces[piece];
+    }
+    
+    //Method returns bitboard of all pieces of a side
+    public long occupied(int side)
+    {
+        return occupied[side];
+    }
+    
+    //Method returns bitboard of squares not on the edge of the board
+    public long innerMask()
+    {
+        return innerMask;
+    }
+    
+    //Method counts pieces of a piece index
+    public int count(int piece)
+    {
+        return Long.bitCount(pieces[piece]);
+    }
+    
+    //Method counts pieces of a piece index that are not on the edge of the board
+    public int countInner(int piece)
+    {
+        return Long.bitCount(pieces[piece] & innerMask);
+    }
+    
+    //Method returns true if 2 boards are identical
+    @Override
+    public boolean equals(Object o)
+    {
+        if(this == o)
+            return true;
+        if(!(o instanceof BitBoard))
+            return false;
+        
+        BitBoard other = (BitBoard) o;
+        if(size != other.size)
+            return false;
+        
+        for(int p = 0; p < PIECES; p++)
+            if(pieces[p] != other.pieces[p])
+                return false;
+        
+        return true;
+    }
+    
+    //Method computes hash code from the Zobrist key
+    @Override
+    public int hashCode()
+    {
+        return (int) (key ^ (key >>> 32));
+    }
+}
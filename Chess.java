@@ -1,25 +1,26 @@
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.Scanner;
 
-//This program plays 6x6 chess game with alpha beta pruning
+//This program plays chess on a small board (6x6 by default, see Variant) with alpha beta pruning
 public class Chess
 {
     private final char EMPTY = ' ';         //empty slot
     private final int MIN = 0;              //min level
     private final int MAX = 1;              //max level
     private final int LIMIT = 10;            //depth limit
+    private final int TIME_LIMIT = 1000;     //time budget of computer move in milliseconds
+    private final int THREADS = Runtime.getRuntime().availableProcessors();    //search threads
     
     //Board class (inner class)
     private class Board
     {
-        private char[][] array;             //board array
+        private BitBoard bits;              //board bitboards
         
         //Constructor of Board class
         private Board(int size)
         {
-            array = new char[size][size];   //create array
+            bits = new BitBoard(size);      //create empty board
             
             //fill top row with computer pieces (uppercase)
             ArrayList<Character> c = createCompList();
@@ -27,32 +28,27 @@ public class Chess
             //fill bottom row with player pieces (lowercase)
             ArrayList<Character> p = createPlayerList();
             
-            for(int i = 0; i < size; i++)
-            {
-                for(int j = 0; j < size; j++)
-                {
-                    array[i][j] = EMPTY;    //fill up array with empty space
-                }
-            }
-            
-            for(int k = 0; k < size; k++)
+            for(int j = 0; j < size; j++)
             {
-                for(int j = 0; j < size; j++)
-                {
-                    array[0][j] = c.get(j);         //fill top row
-                    array[size-1][j] = p.get(j);    //fill bottom row
-                }
+                bits.set(0, j, c.get(j));           //fill top row
+                bits.set(size-1, j, p.get(j));      //fill bottom row
             }
         }
+        
+        //Constructor wraps existing bitboards
+        private Board(BitBoard bits)
+        {
+            this.bits = bits;
+        }
     }
     
     //Method creates a list of uppercase computer pieces
     public ArrayList<Character> createCompList()
     {
-        //create list and add 5 pieces and blank
+        //create list with the pieces and blanks of the variant's back row
         ArrayList<Character> temp = new ArrayList<Character>();
-        temp.add('R'); temp.add('K'); temp.add('B');
-        temp.add('B'); temp.add('R'); temp.add(' ');
+        for(int j = 0; j < variant.backRow().length(); j++)
+            temp.add(variant.backRow().charAt(j));
         
         Collections.shuffle(temp);  //shuffle to start with new order
         return temp;                //return list
@@ -61,23 +57,60 @@ public class Chess
     //Method creates a list of lowercase player pieces
     public ArrayList<Character> createPlayerList()
     {
-        //create list and add 5 pieces and blank
+        //create list with the pieces and blanks of the variant's back row
         ArrayList<Character> temp = new ArrayList<Character>();
-        temp.add('r'); temp.add('k'); temp.add('b');
-        temp.add('b'); temp.add('r'); temp.add(' ');
+        for(int j = 0; j < variant.backRow().length(); j++)
+            temp.add(Character.toLowerCase(variant.backRow().charAt(j)));
         
         Collections.shuffle(temp);  //shuffle to start with new order
         return temp;                //return list
     }
     
+    private Variant variant;                        //size, back row and piece steps
     private Board board;                            //game board
-    private int size;                               //size of board (6x6)
+    private int size;                               //size of board
+    private String separator;                       //line between rows of the displayed board
+    private boolean inPlace;                        //search one board in place instead of copying
+    private Engine engine;                          //in place search on all threads
+    private Ponderer ponderer;                      //searches while the player thinks (null if off)
+    private SearchLimits limits;                    //limits of each computer move
+    private Scanner key;                            //reads player moves
+    private MoveGenerator generator;                //legal move generator
+    private int[] moves;                            //move buffer of generator
+    private MoveList[] lists;                       //moves of each ply of the copy mode search
+    private long nodes;                             //boards visited by the copy mode search of a move
     
     //Constructor of Chess class
     public Chess(int size)
     {
+        this(size, true);
+    }
+    
+    //Constructor of Chess class with choice of search mode
+    public Chess(int size, boolean inPlace)
+    {
+        this(Variant.forSize(size), inPlace);
+    }
+    
+    //Constructor of Chess class playing a variant with choice of search mode
+    public Chess(Variant variant, boolean inPlace)
+    {
+        this.variant = variant;                     //assign variant before the board is filled
+        this.size = variant.size();                 //assign board size
         this.board = new Board(size);               //create game board
-        this.size = size;                           //assign board size
+        this.separator = new String(new char[2 * size + 1]).replace('\0', '-');
+        this.inPlace = inPlace;                     //assign search mode
+        MiniChessEngine engine = new MiniChessEngine(variant, LIMIT, THREADS);     //create searches with move buffers
+        if(variant.isStandard())                    //tables assume the standard steps
+            engine.setTablebase(Tablebase.openDefault(size));   //solved endgames, if they were built
+        engine.setBook(OpeningBook.openDefault(variant));       //first moves, if built for this variant
+        this.engine = engine;
+        this.ponderer = inPlace ? new Ponderer(engine) : null;     //copy mode has no engine search to ponder with
+        this.limits = SearchLimits.time(TIME_LIMIT);
+        this.key = new Scanner(System.in);          //one scanner so buffered input is kept between moves
+        this.generator = new MoveGenerator(variant);    //create move tables
+        this.moves = new int[MoveGenerator.MAX_MOVES];
+        this.lists = MoveList.stack(LIMIT + 1);
     }
     
     //Method plays game
@@ -88,6 +121,12 @@ public class Chess
         
         while(true)                                 //computer and player take turns
         {
+            if(!hasMove(board, BitBoard.PLAYER))    //player cannot move
+            {
+                System.out.println("Draw");
+                break;
+            }
+            
             board = playerMove(board);              //player move
             
             if(!lookForKing(board, 'K'))            //look for computer King
@@ -96,6 +135,12 @@ public class Chess
                 break;
             }
             
+            if(!hasMove(board, BitBoard.COMPUTER))  //computer cannot move
+            {
+                System.out.println("Draw");
+                break;
+            }
+            
             board = computerMove(board);            //computer move
             
             if(!lookForKing(board, 'k'))            //look for player king
@@ -104,17 +149,22 @@ public class Chess
                 break;
             }
         }
+        
+        if(ponderer != null)
+            ponderer.close();                       //stop pondering
+        engine.close();                             //stop search threads
     }
     
     //Method checks if king is alive
     private boolean lookForKing(Board board, char king)
     {
-        for(int i = 0; i < size; i++)
-            for(int j = 0; j < size; j++)
-                if(board.array[i][j] == king)
-                    return true;
-                    
-        return false;
+        return board.bits.hasKing(king);
+    }
+    
+    //Method checks if a side has any legal move
+    private boolean hasMove(Board board, int side)
+    {
+        return generator.generate(board.bits, side, moves) > 0;
     }
     
     //Method performs player move
@@ -122,8 +172,6 @@ public class Chess
     {
         System.out.print("Player move: ");      //prompt player
         
-        Scanner key = new Scanner(System.in);   //scanner object
-        
         while(true)                //run until proper input from player
         {
             //read move
@@ -132,31 +180,35 @@ public class Chess
             int toI = key.nextInt();
             int toJ = key.nextInt();
             
+            //if player try a square off the board
+            if(fromI < 0 || fromI >= size || fromJ < 0 || fromJ >= size || toI < 0 || toI >= size || toJ < 0 || toJ >= size)
+            {
+                System.out.println("Rows and columns go from 0 to " + (size - 1) + ". Try again.");
+            }
             //if player try to move computer piece
-            if(Character.isUpperCase(board.array[fromI][fromJ]))
+            else if(board.bits.isComputer(fromI, fromJ))
             {
                 System.out.println("That is a computer piece. Try again.");
             }
             //if player try to move empty space
-            else if(board.array[fromI][fromJ] == EMPTY)
+            else if(board.bits.isEmpty(fromI, fromJ))
             {
                 System.out.println("That is an empty space. Try again.");
             }
             //if player try to kill own piece
-            else if(!Character.isUpperCase(board.array[toI][toJ]) && board.array[toI][toJ] != EMPTY)
+            else if(board.bits.isPlayer(toI, toJ))
             {
                 System.out.println("You cannot kill your own piece. Try again.");
             }
-            //if player try to move multiple steps
-            else if(Math.abs(toI - fromI) > 1 || Math.abs(toJ - fromJ) > 1)
+            //if player try a step the piece cannot make
+            else if(!generator.isLegal(board.bits, BitBoard.PLAYER, board.bits.square(fromI, fromJ), board.bits.square(toI, toJ)))
             {
-                System.out.println("You cannot move more than one space away. Try again.");
+                System.out.println("That piece cannot move there. Try again.");
             }
             else    //player input correct move
             {
                 //move piece to correct place
-                board.array[toI][toJ] = board.array[fromI][fromJ];
-                board.array[fromI][fromJ] = EMPTY;
+                board.bits.move(fromI, fromJ, toI, toJ);
                     
                 //display board
                 displayBoard(board);
@@ -169,26 +221,62 @@ public class Chess
         return board;       //return updated board
     }
     
-    //Method determines computer move
+    //Method determines computer move, recorded as a flight recorder event
     private Board computerMove(Board board)
     {
-        LinkedList<Board> children = generate(board);       //generate children of board
+        FlightEvents.ComputerMoveEvent event = FlightEvents.computerMove();
+        long allocated = 0;
+        if(event != null)
+        {
+            event.begin();
+            allocated = FlightEvents.allocatedBytes();
+        }
+        
+        if(inPlace)
+        {
+            SearchResult result = ponderer != null ? ponderer.finish(board.bits, BitBoard.COMPUTER, limits)
+                : engine.search(board.bits, BitBoard.COMPUTER, limits);
+            int move = result.bestMove();
+            if(move != Move.NONE)
+                board.bits.makeMove(move);              //apply best move
+            
+            //search the answer to the expected player reply while the player thinks
+            int[] line = result.principalVariation();
+            if(ponderer != null && line.length > 1 && line[0] == move)
+                ponderer.start(board.bits, BitBoard.COMPUTER, line[1], limits);
+            
+            if(event != null)
+                event.end("in place", Move.toString(move, size), result.depth(), result.nodes(), allocated);
+            
+            System.out.println("Computer move: ");      //print next move
+            displayBoard(board);
+            System.out.println();
+            
+            return board;                               //return updated board
+        }
         
-        int maxIndex = 0;
-        int maxValue = minmax(children.get(0), MIN, 1, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        nodes = 0;
+        MoveList list = lists[0];
+        list.generate(generator, board.bits, BitBoard.COMPUTER);    //moves to children of board
         
-        for(int i = 1; i < children.size(); i++)    //find child with largest minmax value
+        Board result = null;
+        int maxValue = Integer.MIN_VALUE;
+        
+        for(int i = 0; i < list.size(); i++)        //find child with largest minmax value
         {
-            int currentValue = minmax(children.get(i), MIN, 1, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            Board child = child(board, list.move(i));
+            int currentValue = minmax(child, MIN, 1, Integer.MIN_VALUE, Integer.MAX_VALUE);
             
-            if(currentValue > maxValue)
+            if(result == null || currentValue > maxValue)
             {
-                maxIndex = i;
+                result = child;                     //choose child as next move
                 maxValue = currentValue;
             }
         }
         
-        Board result = children.get(maxIndex);      //choose child as next move
+        if(event != null)
+            event.end("copy", "", LIMIT, nodes, allocated);
+        
         System.out.println("Computer move: ");      //print next move
         displayBoard(result);
         System.out.println();
@@ -199,28 +287,35 @@ public class Chess
     //Method computes minmax value of board
     private int minmax(Board board, int level, int depth, int alpha, int beta)
     {
-        if(depth >= LIMIT)
+        nodes++;
+        
+        if(!lookForKing(board, 'K'))        //Player wins
         {
-            return evaluate(board);         //evaluate board at leaf
+            return -Search.WIN;
         }
-        else if(!lookForKing(board, 'K'))   //Computer wins
+        else if(!lookForKing(board, 'k'))   //Computer wins
         {
-            return 999999;
+            return Search.WIN;
         }
-        else if(!lookForKing(board, 'k'))   //Player wins
+        else if(depth >= LIMIT)
         {
-            return -999999;
+            return evaluate(board);         //evaluate board at leaf
         }
         else if(level == MAX)       //if board is at max level
         {
             int maxValue = Integer.MIN_VALUE;
             
-            LinkedList<Board> children = generate(board);   //generate children of board
+            MoveList list = lists[depth];
+            list.generate(generator, board.bits, BitBoard.COMPUTER);   //moves to children of board
+            list.scoreCaptures();       //captures of valuable pieces first
             
-            for(int i = 0; i < children.size(); i++)
+            if(list.isEmpty())      //computer is stuck, game is drawn
+                return 0;
+            
+            for(int i = 0; i < list.size(); i++)
             {
                 //find maximum of minmax values of children
-                int currentValue = minmax(children.get(i), MIN, depth+1, alpha, beta);
+                int currentValue = minmax(child(board, list.next(i)), MIN, depth+1, alpha, beta);
                 
                 if(currentValue > maxValue)
                     maxValue = currentValue;
@@ -238,12 +333,17 @@ public class Chess
         {
             int minValue = Integer.MAX_VALUE;
             
-            LinkedList<Board> children = generate(board);   //generate children of board
+            MoveList list = lists[depth];
+            list.generate(generator, board.bits, BitBoard.PLAYER);   //moves to children of board
+            list.scoreCaptures();       //captures of valuable pieces first
+            
+            if(list.isEmpty())      //player is stuck, game is drawn
+                return 0;
             
-            for(int i = 0; i < children.size(); i++)
+            for(int i = 0; i < list.size(); i++)
             {
                 //find minimum of minmax values of children
-                int currentValue = minmax(children.get(i), MAX, depth+1, alpha, beta);
+                int currentValue = minmax(child(board, list.next(i)), MAX, depth+1, alpha, beta);
                 
                 if(currentValue < minValue)
                     minValue = currentValue;
@@ -259,647 +359,39 @@ public class Chess
         }
     }
     
-    //Method generates children of board
-    private LinkedList<Board> generate(Board board)
+    //Method makes the child of board reached by a move
+    private Board child(Board board, int move)
     {
-        LinkedList<Board> children = new LinkedList<Board>();
-        
-        for(int i = 0; i < size; i++)
-        {
-            for(int j = 0; j < size; j++)
-            {
-                Board child = copy(board);
-                
-                //CREATE EVERY POSSIBLE BOARD AND ADD TO CHILDREN
-                
-                //ROOK PIECE
-                if(child.array[i][j] == 'R')
-                {
-                    if(i == 0 && j == 0)
-                    {
-                        if(!Character.isUpperCase(child.array[i+1][j]))
-                        {
-                            child.array[i+1][j] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i][j+1]))
-                        {
-                            child.array[i][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                    if(i == 0 && j == size - 1)
-                    {
-                        if(!Character.isUpperCase(child.array[i+1][j]))
-                        {
-                            child.array[i+1][j] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i][j-1]))
-                        {
-                            child.array[i][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                    if(i == size - 1 && j == 0)
-                    {
-                        if(!Character.isUpperCase(child.array[i-1][j]))
-                        {
-                            child.array[i-1][j] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i][j+1]))
-                        {
-                            child.array[i][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                    if(i == size - 1 && j == size - 1)
-                    {
-                        if(!Character.isUpperCase(child.array[i-1][j]))
-                        {
-                            child.array[i-1][j] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i][j-1]))
-                        {
-                            child.array[i][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                    if(i == 0 && j > 0 && j < size - 1)
-                    {
-                        if(!Character.isUpperCase(child.array[i+1][j]))
-                        {
-                            child.array[i+1][j] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i][j-1]))
-                        {
-                            child.array[i][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i][j+1]))
-                        {
-                            child.array[i][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                    if(j == 0 && i > 0 && i < size - 1)
-                    {
-                        if(!Character.isUpperCase(child.array[i+1][j]))
-                        {
-                            child.array[i+1][j] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i-1][j]))
-                        {
-                            child.array[i-1][j] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i][j+1]))
-                        {
-                            child.array[i][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                    if(j == size - 1 && i > 0 && i < size - 1)
-                    {
-                        if(!Character.isUpperCase(child.array[i-1][j]))
-                        {
-                            child.array[i-1][j] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i+1][j]))
-                        {
-                            child.array[i+1][j] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i][j-1]))
-                        {
-                            child.array[i][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                    if(i == size - 1 && j > 0 && j < size - 1)
-                    {
-                        if(!Character.isUpperCase(child.array[i][j-1]))
-                        {
-                            child.array[i][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i][j+1]))
-                        {
-                            child.array[i][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i-1][j]))
-                        {
-                            child.array[i-1][j] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                    if(i > 0 && i < size - 1 && j > 0 && j < size - 1)
-                    {
-                        if(!Character.isUpperCase(child.array[i+1][j]))
-                        {
-                            child.array[i+1][j] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i-1][j]))
-                        {
-                            child.array[i-1][j] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i][j+1]))
-                        {
-                            child.array[i][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i][j-1]))
-                        {
-                            child.array[i][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                }
-                
-                //BISHOP PIECE
-                if(child.array[i][j] == 'B')
-                {
-                    if(i == 0 && j == 0)
-                    {
-                        if(!Character.isUpperCase(child.array[i+1][j+1]))
-                        {
-                            child.array[i+1][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                    if(i == 0 && j == size - 1)
-                    {
-                        if(!Character.isUpperCase(child.array[i+1][j-1]))
-                        {
-                            child.array[i+1][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                    if(i == size - 1 && j == 0)
-                    {
-                        if(!Character.isUpperCase(child.array[i-1][j+1]))
-                        {
-                            child.array[i-1][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                    if(i == size - 1 && j == size - 1)
-                    {
-                        if(!Character.isUpperCase(child.array[i-1][j-1]))
-                        {
-                            child.array[i-1][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                    if(i == 0 && j > 0 && j < size - 1)
-                    {
-                        if(!Character.isUpperCase(child.array[i+1][j+1]))
-                        {
-                            child.array[i+1][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i+1][j-1]))
-                        {
-                            child.array[i+1][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                    if(j == 0 && i > 0 && i < size - 1)
-                    {
-                        if(!Character.isUpperCase(child.array[i+1][j+1]))
-                        {
-                            child.array[i+1][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i-1][j+1]))
-                        {
-                            child.array[i-1][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                    if(j == size - 1 && i > 0 && i < size - 1)
-                    {
-                        if(!Character.isUpperCase(child.array[i-1][j-1]))
-                        {
-                            child.array[i-1][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i+1][j-1]))
-                        {
-                            child.array[i+1][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                    if(i == size - 1 && j > 0 && j < size - 1)
-                    {
-                        if(!Character.isUpperCase(child.array[i-1][j-1]))
-                        {
-                            child.array[i-1][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i-1][j+1]))
-                        {
-                            child.array[i-1][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                    if(i > 0 && i < size - 1 && j > 0 && j < size - 1)
-                    {
-                        if(!Character.isUpperCase(child.array[i+1][j+1]))
-                        {
-                            child.array[i+1][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i-1][j-1]))
-                        {
-                            child.array[i-1][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i-1][j+1]))
-                        {
-                            child.array[i-1][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i+1][j-1]))
-                        {
-                            child.array[i+1][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                }
-                
-                //KING PIECE
-                if(child.array[i][j] == 'K')
-                {
-                    if(i == 0 && j == 0)
-                    {
-                        if(!Character.isUpperCase(child.array[i+1][j]))
-                        {
-                            child.array[i+1][j] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i][j+1]))
-                        {
-                            child.array[i][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i+1][j+1]))
-                        {
-                            child.array[i+1][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                    if(i == 0 && j == size - 1)
-                    {
-                        if(!Character.isUpperCase(child.array[i+1][j]))
-                        {
-                            child.array[i+1][j] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i][j-1]))
-                        {
-                            child.array[i][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i+1][j-1]))
-                        {
-                            child.array[i+1][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                    if(i == size - 1 && j == 0)
-                    {
-                        if(!Character.isUpperCase(child.array[i-1][j]))
-                        {
-                            child.array[i-1][j] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i][j+1]))
-                        {
-                            child.array[i][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i-1][j+1]))
-                        {
-                            child.array[i-1][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                    if(i == size - 1 && j == size - 1)
-                    {
-                        if(!Character.isUpperCase(child.array[i-1][j-1]))
-                        {
-                            child.array[i-1][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i-1][j]))
-                        {
-                            child.array[i-1][j] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i][j-1]))
-                        {
-                            child.array[i][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                    if(i == 0 && j > 0 && j < size - 1)
-                    {
-                        if(!Character.isUpperCase(child.array[i+1][j+1]))
-                        {
-                            child.array[i+1][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i+1][j-1]))
-                        {
-                            child.array[i+1][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i+1][j]))
-                        {
-                            child.array[i+1][j] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i][j-1]))
-                        {
-                            child.array[i][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i][j+1]))
-                        {
-                            child.array[i][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                    if(j == 0 && i > 0 && i < size - 1)
-                    {
-                        if(!Character.isUpperCase(child.array[i+1][j+1]))
-                        {
-                            child.array[i+1][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i-1][j+1]))
-                        {
-                            child.array[i-1][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i+1][j]))
-                        {
-                            child.array[i+1][j] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i-1][j]))
-                        {
-                            child.array[i-1][j] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i][j+1]))
-                        {
-                            child.array[i][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                    if(j == size - 1 && i > 0 && i < size - 1)
-                    {
-                        if(!Character.isUpperCase(child.array[i-1][j-1]))
-                        {
-                            child.array[i-1][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i+1][j-1]))
-                        {
-                            child.array[i+1][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i-1][j]))
-                        {
-                            child.array[i-1][j] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i+1][j]))
-                        {
-                            child.array[i+1][j] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i][j-1]))
-                        {
-                            child.array[i][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                    if(i == size - 1 && j > 0 && j < size - 1)
-                    {
-                        if(!Character.isUpperCase(child.array[i-1][j-1]))
-                        {
-                            child.array[i-1][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i-1][j+1]))
-                        {
-                            child.array[i-1][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i][j-1]))
-                        {
-                            child.array[i][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i][j+1]))
-                        {
-                            child.array[i][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i-1][j]))
-                        {
-                            child.array[i-1][j] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                    if(i > 0 && i < size - 1 && j > 0 && j < size - 1)
-                    {
-                        if(!Character.isUpperCase(child.array[i+1][j+1]))
-                        {
-                            child.array[i+1][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i-1][j-1]))
-                        {
-                            child.array[i-1][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i-1][j+1]))
-                        {
-                            child.array[i-1][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i+1][j-1]))
-                        {
-                            child.array[i+1][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i+1][j]))
-                        {
-                            child.array[i+1][j] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i-1][j]))
-                        {
-                            child.array[i-1][j] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i][j+1]))
-                        {
-                            child.array[i][j+1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                        else if(!Character.isUpperCase(child.array[i][j-1]))
-                        {
-                            child.array[i][j-1] = child.array[i][j];
-                            child.array[i][j] = EMPTY;
-                        }
-                    }
-                }
-                
-                //add child to list if it does not already exist in it
-                if(!identicalBoard(child, board) && !children.contains(child))
-                    children.addLast(child);
-            }
-        }
-        
-        return children;
-    }
-    
-    //Method returns true if 2 boards are identical
-    private boolean identicalBoard(Board child, Board board)
-    {
-        for(int i = 0; i < size; i++)
-        {
-            for(int j = 0; j < size; j++)
-            {
-                if(child.array[i][j] != board.array[i][j])
-                {
-                    return false;
-                }
-            }
-        }
-        return true;
+        Board child = copy(board);
+        child.bits.makeMove(move);                  //apply move to copy
+        return child;
     }
     
     //Method evaluates a board
     private int evaluate(Board board)
     {
-        if(!lookForKing(board, 'k'))
-            return 999999;               //score if computer high chance to win
-        else if(!lookForKing(board, 'K'))
-            return -999999;              //score if player high chance to win
-        else
-            return countC(board) + countP(board);         //calculate evaluation of board
-    }
-    
-    //Method assigns scores to each computer piece and adds them up
-    private int countC(Board board)
-    {
-        int score = 0;  //assign score to 0
-        
-        for(int i = 0; i < size; i++)       //iterate through board
-        {
-            for(int j = 0; j < size; j++)
-            {
-                //assign points and add up score
-                if(board.array[i][j] == 'K')
-                    score += scoreK(i, j);
-                if(board.array[i][j] == 'R')
-                    score += scoreR(i, j);
-                if(board.array[i][j] == 'B')
-                    score += scoreB(i, j);
-            }
-        }
-        
-        return score;   //return final count score
-    }
-    
-    //Method assigns scores to each player piece and adds them up
-    private int countP(Board board)
-    {
-        int score = 0;  //assign score to 0
-        
-        for(int i = 0; i < size; i++)       //iterate through board
-        {
-            for(int j = 0; j < size; j++)
-            {
-                //assign points and add up score
-                if(board.array[i][j] == 'k')
-                    score -= scoreK(i, j);
-                if(board.array[i][j] == 'r')
-                    score -= scoreR(i, j);
-                if(board.array[i][j] == 'b')
-                    score -= scoreB(i, j);
-            }
-        }
-        
-        return score;   //return final count score
-    }
-    
-    //Method counts score for king
-    private int scoreK(int i, int j)
-    {
-        if(i > 0 && i < size-1 && j > 0 && j < size-1)
-            return 8;
-        else
-            return 5;
-    }
-    
-    //Method counts score for rook
-    private int scoreR(int i, int j)
-    {
-        if(i > 0 && i < size-1 && j > 0 && j < size-1)
-            return 4;
-        else
-            return 3;
-    }
-    
-    //Method counts score for bishop
-    private int scoreB(int i, int j)
-    {
-        if(i > 0 && i < size-1 && j > 0 && j < size-1)
-            return 3;
-        else
-            return 2;
+        return Search.evaluate(board.bits);
     }
     
     //Method makes a copy of a board
     private Board copy(Board board)
     {
-        Board result = new Board(size);
-        
-        for(int i = 0; i < size; i++)
-            for(int j = 0; j < size; j++)
-                result.array[i][j] = board.array[i][j];
-                
-        return result;
+        return new Board(new BitBoard(board.bits));
     }
     
     //Method displays a board
     private void displayBoard(Board board)
     {
-        System.out.println("-------------");
+        System.out.println(separator);
         for(int i = 0; i < size; i++)
         {
             System.out.print("|");
             for(int j = 0; j < size; j++)
             {
-                System.out.print(board.array[i][j] + "|");
+                System.out.print(board.bits.get(i, j) + "|");
             }
             System.out.println();
-            System.out.println("-------------");
+            System.out.println(separator);
         }
     }
 }
\ No newline at end of file
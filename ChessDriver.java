@@ -3,8 +3,8 @@ public class ChessDriver
 {
     public static void main(String[] args)
     {
-        //create Chess object
-        Chess x = new Chess(6);
+        //create Chess object for the variant named on the command line (6x6 if none)
+        Chess x = new Chess(args.length > 0 ? Variant.named(args[0]) : Variant.STANDARD, true);
         x.play();   //play game
     }
 }
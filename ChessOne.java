@@ -1,6 +1,5 @@
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.Scanner;
 
 //This program plays 6x6 chess game with alpha beta pruning
@@ -67,6 +66,10 @@ public class ChessOne
     
     private Board board;
     private int size;
+    private Tables tables;
+    
+    private int[] grab;                     //squares of computer pieces, refilled by generate
+    private int[] free;                     //squares without a computer piece, refilled by generate
     
     private ArrayList<Character> compKilled;
     private ArrayList<Character> playerKilled;
@@ -75,6 +78,9 @@ public class ChessOne
     {
         this.board = new Board(size);
         this.size = size;
+        this.tables = Tables.forSize(size);
+        this.grab = new int[size * size];
+        this.free = new int[size * size];
         
         compKilled = new ArrayList<Character>();
         playerKilled = new ArrayList<Character>();
@@ -90,7 +96,7 @@ public class ChessOne
         {
             board = playerMove(board);              //player move
             
-            //LinkedList<Board> list = generate(board);
+            //ArrayList<Board> list = generate(board);
             //printChildList(list);
             //System.out.println("Size: " + list.size());
             
@@ -184,7 +190,7 @@ public class ChessOne
     //Method determines computer move
     private Board computerMove(Board board)
     {
-        LinkedList<Board> children = generate(board);       //generate children of board
+        ArrayList<Board> children = generate(board);       //generate children of board
         
         int maxIndex = 0;
         int maxValue = minmax(children.get(0), MIN, 1, Integer.MIN_VALUE, Integer.MAX_VALUE);
@@ -223,7 +229,7 @@ public class ChessOne
         {
             int maxValue = Integer.MIN_VALUE;
             
-            LinkedList<Board> children = generate(board);   //generate children of board
+            ArrayList<Board> children = generate(board);   //generate children of board
             
             for(int i = 0; i < children.size(); i++)
             {
@@ -246,7 +252,7 @@ public class ChessOne
         {
             int minValue = Integer.MAX_VALUE;
             
-            LinkedList<Board> children = generate(board);   //generate children of board
+            ArrayList<Board> children = generate(board);   //generate children of board
             
             for(int i = 0; i < children.size(); i++)
             {
@@ -268,34 +274,26 @@ public class ChessOne
     }
     
     //Method generates children of board
-    private LinkedList<Board> generate(Board board)
+    private ArrayList<Board> generate(Board board)
     {
-        LinkedList<Board> children = new LinkedList<Board>();
-        
-        ArrayList<Integer> grabI = new ArrayList<Integer>();
-        ArrayList<Integer> grabJ = new ArrayList<Integer>();
+        ArrayList<Board> children = new ArrayList<Board>();
         
-        ArrayList<Integer> lcI = new ArrayList<Integer>();
-        ArrayList<Integer> lcJ = new ArrayList<Integer>();
+        //squares as i * size + j, no boxing
+        int grabbed = 0;
+        int freed = 0;
         
         for(int i = 0; i < size; i++)
         {
             for(int j = 0; j < size; j++)
             {
                 if(Character.isUpperCase(board.array[i][j]))
-                {
-                    grabI.add(i);
-                    grabJ.add(j);
-                }
-                if(!Character.isUpperCase(board.array[i][j]))
-                {
-                    lcI.add(i);
-                    lcJ.add(j);
-                }
+                    grab[grabbed++] = i * size + j;
+                else
+                    free[freed++] = i * size + j;
             }
         }
         
-        for(int k = 0; k < grabI.size(); k++)
+        for(int k = 0; k < grabbed; k++)
         {
             Board child = copy(board);
             
@@ -314,11 +312,11 @@ public class ChessOne
                 }
             }
             
-            int i = grabI.get(k);
-            int j = grabJ.get(k);
+            int i = grab[k] / size;
+            int j = grab[k] % size;
             
-            int x = lcI.get(k);
-            int y = lcJ.get(k);
+            int x = free[k] / size;
+            int y = free[k] % size;
             
             if(child.array[i][j] == 'R')
             {
@@ -426,18 +424,18 @@ public class ChessOne
                 }*/
             }
             
-            if(!identicalBoard(child, board) && !children.contains(child))
-                children.addLast(child);
+            if(!identicalBoard(child, board))     //every child is a new object, so none is in the list yet
+                children.add(child);
         }
         
         /*int score = scores(children);
-        LinkedList<Board> result = new LinkedList<Board>();
+        ArrayList<Board> result = new ArrayList<Board>();
         result.add(children.get(score));
         return result;*/
         return children;
     }
     
-    private int scores(LinkedList<Board> children)
+    private int scores(ArrayList<Board> children)
     {
         ArrayList<Integer> s = new ArrayList<Integer>();
         for(int i = 0; i < children.size(); i++)
@@ -474,7 +472,7 @@ public class ChessOne
         return true;
     }
     
-    private void printChildList(LinkedList<Board> children)
+    private void printChildList(ArrayList<Board> children)
     {
         for(int i = 0; i < children.size(); i++)
         {
@@ -503,8 +501,7 @@ public class ChessOne
     
     private int countToK(Board board)
     {
-        ArrayList<Integer> distances = new ArrayList<Integer>();
-        ArrayList<Character> closest = new ArrayList<Character>();
+        int closest = Integer.MAX_VALUE;    //fewest steps from a computer piece to the king
         
         //PLAYER KING COORDINATES
         int I = 0;
@@ -527,20 +524,16 @@ public class ChessOne
             for(int j = 0; j < size; j++)
             {
                 if(board.array[i][j] != EMPTY && Character.isUpperCase(board.array[i][j]))
-                {
-                    closest.add(board.array[i][j]);
-                    distances.add(distance(i, j, I, J));
-                }
+                    closest = Math.min(closest, distance(i, j, I, J));
             }
         }
         
-        return findMin(distances);
+        return closest;
     }
     
     private int countTok(Board board)
     {
-        ArrayList<Integer> distances = new ArrayList<Integer>();
-        ArrayList<Character> closest = new ArrayList<Character>();
+        int closest = Integer.MAX_VALUE;    //fewest steps from a computer piece to the king
         
         //PLAYER KING COORDINATES
         int I = 0;
@@ -563,14 +556,11 @@ public class ChessOne
             for(int j = 0; j < size; j++)
             {
                 if(board.array[i][j] != EMPTY && Character.isUpperCase(board.array[i][j]))
-                {
-                    closest.add(board.array[i][j]);
-                    distances.add(distance(i, j, I, J));
-                }
+                    closest = Math.min(closest, distance(i, j, I, J));
             }
         }
         
-        return findMin(distances);
+        return closest;
     }
     
     private int countC(Board board)
@@ -614,104 +604,19 @@ public class ChessOne
         System.out.println();
     }
     
+    //Method looks up steps between 2 squares moving one row or column at a time
     private int distance(int i, int j, int I, int J)
     {
-        int score = 0;
-        while(true)
-        {
-            if(i < I)
-            {
-                i++;
-                score++;
-            }
-            else if(i > I)
-            {
-                i--;
-                score++;
-            }
-            
-            if(j < J)
-            {
-                j++;
-                score++;
-            }
-            else if(j > J)
-            {
-                j--;
-                score++;
-            }
-            
-            if(i == I && j == J)
-            {
-                break;
-            }
-        }
-        return score;
+        if(i < 0 || i >= size || j < 0 || j >= size)    //square off the board has no table entry
+            return Math.abs(i - I) + Math.abs(j - J);
+        
+        return tables.distance(i * size + j, I * size + J);
     }
     
+    //Method looks up diagonal steps between 2 squares (Integer.MAX_VALUE if unreachable)
     private int distanceB(int i, int j, int I, int J)
     {
-        int score = 0;
-        if(!((i + j) % 2 == 0 && (I + J) % 2 == 0))
-        {
-            return Integer.MAX_VALUE;
-        }
-        while(true)
-        {
-            if(i+j <= I+J)
-            {
-                if(i < I && j < J)
-                {
-                    i++;
-                    j++;
-                    score++;
-                }
-                if(i > I && j > J)
-                {
-                    i--;
-                    j--;
-                    score++;
-                }
-                if(i < I && j > J)
-                {
-                    i++;
-                    j--;
-                    score++;
-                }
-                if(i > I && j < J)
-                {
-                    i--;
-                    j++;
-                    score++;
-                }
-                if(i < I && j == J)
-                {
-                    i++;
-                    score++;
-                }
-                if(i > I && j == J)
-                {
-                    i--;
-                    score++;
-                }
-                if(i == I && j < J)
-                {
-                    j++;
-                    score++;
-                }
-                if(i == I && j > J)
-                {
-                    j--;
-                    score++;
-                }
-                
-                if(i == I && j == J)
-                {
-                    break;
-                }
-            }
-        }
-        return score;
+        return tables.bishopDistance(i * size + j, I * size + J);
     }
     
     private ArrayList<Character> getCurrentAlive(Board board)
@@ -745,19 +650,6 @@ public class ChessOne
         return max;
     }
     
-    private int findMin(ArrayList<Integer> a)
-    {
-        int min = Integer.MAX_VALUE;
-        for(int i = 0; i < a.size(); i++)
-        {
-            if(min > a.get(i))
-            {
-                min = a.get(i);
-            }
-        }
-        return min;
-    }
-    
     private int findMinIndex(ArrayList<Integer> a)
     {
         int min = Integer.MAX_VALUE;
@@ -0,0 +1,13 @@
+//This interface is the headless engine: it takes a position and search limits and returns the best
+//move, its score, the expected line of play and statistics, without reading or printing anything
+public interface Engine
+{
+    //Method searches a board for the side to move (BitBoard.COMPUTER or BitBoard.PLAYER), leaving it unchanged
+    SearchResult search(BitBoard board, int side, SearchLimits limits);
+    
+    //Method forgets what was learned from earlier searches, for example before a new game
+    void newGame();
+    
+    //Method releases threads of the engine
+    void close();
+}
@@ -0,0 +1,404 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+//This program serves many games at once over TCP on localhost, one line per request and reply:
+//
+//  NEW                     -> SESSION <id> <board>      start a game with shuffled back rows
+//  MOVE <id> <fi fj ti tj> -> MOVE <fi fj ti tj> <score> <nodes> <state>   player move and computer reply
+//                          -> OVER <state>              player move ended the game, no computer reply
+//  BOARD <id>              -> BOARD <board>
+//  END <id>                -> OK
+//  QUIT                    -> closes the connection
+//
+//A board is written as its rows from the top, separated by '/', with '.' for empty squares.
+//The state is PLAY, PLAYER_WINS, COMPUTER_WINS or DRAW. Errors reply ERROR <reason>, and
+//a full search queue replies BUSY without changing the game, so the client can send it again.
+//MOVE, BOARD and END only accept sessions started by NEW on the same connection.
+//
+//The server plays one variant, 6x6 unless another is named. Searches run on a fixed pool of
+//workers, each with its own engine; all engines share one transposition table and the read only
+//tables of the variant. The table starts a new generation every AGE_SEARCHES searches of all games
+//rather than every search, so depth preferred replacement still keeps the entries of concurrent
+//games. The queue in front of the workers is bounded and every search has a time limit, so no game
+//can hold up the others for long.
+public class EngineServer
+{
+    public static final int DEFAULT_PORT = 7654;        //port when none is given
+    
+    private static final int TABLE_ENTRIES = 1 << 22;  //size of shared table
+    private static final int AGE_SEARCHES = 1024;      //searches of all games in one table generation
+    
+    //state of a game after a move
+    public static final String PLAY = "PLAY";
+    public static final String PLAYER_WINS = "PLAYER_WINS";
+    public static final String COMPUTER_WINS = "COMPUTER_WINS";
+    public static final String DRAW = "DRAW";
+    
+    //Session class (one game)
+    private static class Session
+    {
+        private final BitBoard board;                   //board of game
+        private final int[] moves;                      //move buffer of generator
+        private boolean over;                           //true once the game has ended
+        
+        //Constructor of Session class
+        private Session(BitBoard board)
+        {
+            this.board = board;
+            this.moves = new int[MoveGenerator.MAX_MOVES];
+        }
+    }
+    
+    private final Variant variant;                      //variant of every game served
+    private final int size;                             //size of boards served
+    private final int port;                             //port to listen on
+    private final SearchLimits limits;                  //limits of each computer move
+    private final MoveGenerator generator;              //move tables shared by every session
+    private final TranspositionTable table;             //table shared by every engine
+    private final ThreadPoolExecutor workers;           //searches, with a bounded queue
+    private final ExecutorService connections;          //one thread per open connection
+    private final ThreadLocal<Engine> engines;          //engine of each worker thread
+    private final ConcurrentHashMap<Long, Session> sessions;   //games in progress by id
+    private final AtomicLong nextId;                    //id of next session
+    private final AtomicLong busy;                      //requests turned away by a full queue
+    private final AtomicLong searches;                  //computer moves searched
+    
+    private volatile ServerSocket server;               //listening socket (null until started)
+    
+    //Constructor of EngineServer class for the standard 6x6 game
+    public EngineServer(int port, int workers, int queue, long moveMillis, int depthLimit)
+    {
+        this(Variant.STANDARD, port, workers, queue, moveMillis, depthLimit);
+    }
+    
+    //Constructor of EngineServer class for a variant
+    public EngineServer(final Variant variant, int port, int workers, int queue, long moveMillis, int depthLimit)
+    {
+        this.variant = variant;
+        this.size = variant.size();
+        this.port = port;
+        this.limits = new SearchLimits(depthLimit, moveMillis, 0);
+        this.generator = new MoveGenerator(variant);
+        this.table = new TranspositionTable(TABLE_ENTRIES, TranspositionTable.Replacement.DEPTH_PREFERRED);
+        this.workers = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<Runnable>(queue), daemons("search-worker"));
+        this.connections = Executors.newCachedThreadPool(daemons("connection"));
+        this.sessions = new ConcurrentHashMap<Long, Session>();
+        this.nextId = new AtomicLong();
+        this.busy = new AtomicLong();
+        this.searches = new AtomicLong();
+        
+        final int depth = depthLimit;
+        this.engines = new ThreadLocal<Engine>()
+        {
+            protected Engine initialValue()
+            {
+                MiniChessEngine engine = new MiniChessEngine(variant, depth, 1, table);
+                engine.setTableAging(false);        //workers age the shared table together, see play()
+                return engine;
+            }
+        };
+    }
+    
+    //Method returns a factory of named daemon threads
+    private static ThreadFactory daemons(final String name)
+    {
+        final AtomicInteger count = new AtomicInteger();
+        return new ThreadFactory()
+        {
+            public Thread newThread(Runnable r)
+            {
+                Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        };
+    }
+    
+    //Method accepts connections on localhost until the server is stopped
+    public void run() throws IOException
+    {
+        server = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+        
+        try
+        {
+            while(true)
+            {
+                final Socket socket;
+                try
+                {
+                    socket = server.accept();
+                }
+                catch(IOException e)
+                {
+                    if(server.isClosed())       //stopped
+                        break;
+                    throw e;
+                }
+                
+                connections.execute(new Runnable()
+                {
+                    public void run()
+                    {
+                        serve(socket);
+                    }
+                });
+            }
+        }
+        finally
+        {
+            connections.shutdownNow();
+            workers.shutdownNow();
+        }
+    }
+    
+    //Method stops accepting connections
+    public void stop() throws IOException
+    {
+        if(server != null)
+            server.close();
+    }
+    
+    //Method returns number of games in progress
+    public int sessions()
+    {
+        return sessions.size();
+    }
+    
+    //Method returns number of requests turned away by a full queue
+    public long busy()
+    {
+        return busy.get();
+    }
+    
+    //Method answers requests of one connection until it is closed, then ends its games
+    private void serve(Socket socket)
+    {
+        ArrayList<Long> own = new ArrayList<Long>();    //sessions started on this connection
+        
+        try
+        {
+            socket.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), "US-ASCII"));
+            PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), "US-ASCII"));
+            
+            String line;
+            while((line = in.readLine()) != null)
+            {
+                String[] words = line.trim().split("\\s+");
+                if(words[0].equals("QUIT"))
+                    break;
+                
+                out.print(answer(words, own));
+                out.print('\n');
+                out.flush();
+            }
+        }
+        catch(IOException e)
+        {
+            //connection dropped, nothing to answer
+        }
+        finally
+        {
+            for(int i = 0; i < own.size(); i++)
+                sessions.remove(own.get(i));
+            
+            try
+            {
+                socket.close();
+            }
+            catch(IOException e)
+            {
+                //already closed
+            }
+        }
+    }
+    
+    //Method answers one request
+    private String answer(String[] words, ArrayList<Long> own)
+    {
+        try
+        {
+            String command = words[0];
+            
+            if(command.equals("NEW"))
+            {
+                long id = nextId.incrementAndGet();
+                Session session = new Session(variant.shuffledBoard());
+                sessions.put(id, session);
+                own.add(id);
+                return "SESSION " + id + " " + Position.rows(session.board);
+            }
+            
+            if(words.length < 2)
+                return "ERROR missing session id";
+            
+            long id = Long.parseLong(words[1]);
+            Session session = sessions.get(id);
+            if(session == null)
+                return "ERROR unknown session " + id;
+            if(!own.contains(id))
+                return "ERROR session " + id + " was not started on this connection";
+            
+            if(command.equals("BOARD"))
+            {
+                synchronized(session)
+                {
+                    return "BOARD " + Position.rows(session.board);
+                }
+            }
+            else if(command.equals("END"))
+            {
+                sessions.remove(id);
+                own.remove(Long.valueOf(id));
+                return "OK";
+            }
+            else if(command.equals("MOVE"))
+            {
+                if(words.length != 6)
+                    return "ERROR MOVE needs a session id and 4 numbers";
+                
+                return move(session, Integer.parseInt(words[2]), Integer.parseInt(words[3]),
+                    Integer.parseInt(words[4]), Integer.parseInt(words[5]));
+            }
+            
+            return "ERROR unknown command " + command;
+        }
+        catch(NumberFormatException e)
+        {
+            return "ERROR not a number: " + e.getMessage();
+        }
+    }
+    
+    //Method checks a player move, then hands the move and the computer reply to a worker
+    private String move(final Session session, int fromI, int fromJ, int toI, int toJ)
+    {
+        final int from;
+        final int to;
+        
+        synchronized(session)
+        {
+            if(session.over)
+                return "ERROR game is over";
+            if(fromI < 0 || fromI >= size || fromJ < 0 || fromJ >= size || toI < 0 || toI >= size || toJ < 0 || toJ >= size)
+                return "ERROR square is off the board";
+            
+            from = session.board.square(fromI, fromJ);
+            to = session.board.square(toI, toJ);
+            if(!generator.isLegal(session.board, BitBoard.PLAYER, from, to))
+                return "ERROR illegal move";
+        }
+        
+        Future<String> reply;
+        try
+        {
+            reply = workers.submit(new Callable<String>()
+            {
+                public String call()
+                {
+                    return play(session, from, to);
+                }
+            });
+        }
+        catch(RejectedExecutionException e)     //queue is full, game is unchanged
+        {
+            busy.incrementAndGet();
+            return "BUSY";
+        }
+        
+        try
+        {
+            return reply.get();
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return "ERROR interrupted";
+        }
+        catch(ExecutionException e)
+        {
+            return "ERROR " + e.getCause();
+        }
+    }
+    
+    //Method plays a checked player move and the computer reply (runs on a worker)
+    private String play(Session session, int from, int to)
+    {
+        synchronized(session)
+        {
+            BitBoard board = session.board;
+            if(session.over || !generator.isLegal(board, BitBoard.PLAYER, from, to))
+                return "ERROR illegal move";
+            
+            board.move(from / size, from % size, to / size, to % size);
+            
+            if(!board.hasKing('K'))
+                return end(session, "OVER " + PLAYER_WINS);
+            if(generator.generate(board, BitBoard.COMPUTER, session.moves) == 0)
+                return end(session, "OVER " + DRAW);
+            
+            //start a table generation every AGE_SEARCHES searches, not every search (see above)
+            if(searches.incrementAndGet() % AGE_SEARCHES == 0)
+                table.newSearch();
+            
+            SearchResult result = engines.get().search(board, BitBoard.COMPUTER, limits);
+            int move = result.bestMove();
+            board.makeMove(move);
+            
+            String reply = "MOVE " + square(Move.from(move)) + " " + square(Move.to(move)) + " " + result.score() + " " + result.nodes() + " ";
+            if(!board.hasKing('k'))
+                return end(session, reply + COMPUTER_WINS);
+            if(generator.generate(board, BitBoard.PLAYER, session.moves) == 0)
+                return end(session, reply + DRAW);
+            
+            return reply + PLAY;
+        }
+    }
+    
+    //Method marks a game as over and returns the reply
+    private String end(Session session, String reply)
+    {
+        session.over = true;
+        return reply;
+    }
+    
+    //Method writes row and column of a square
+    private String square(int sq)
+    {
+        return (sq / size) + " " + (sq % size);
+    }
+    
+    public static void main(String[] args) throws IOException
+    {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int workers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int queue = args.length > 2 ? Integer.parseInt(args[2]) : workers * 16;
+        long moveMillis = args.length > 3 ? Long.parseLong(args[3]) : 100;
+        int depthLimit = args.length > 4 ? Integer.parseInt(args[4]) : MiniChessEngine.DEPTH_LIMIT;
+        Variant variant = args.length > 5 ? Variant.named(args[5]) : Variant.STANDARD;
+        
+        System.out.println("Serving " + variant + " on localhost:" + port + " with " + workers + " workers, queue " + queue
+            + ", " + moveMillis + " ms per move");
+        new EngineServer(variant, port, workers, queue, moveMillis, depthLimit).run();
+    }
+}
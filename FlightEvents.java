@@ -0,0 +1,131 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Constructor;
+
+//This class creates the flight recorder events and measures allocation for them. The event classes
+//extend jdk.jfr.Event, so they live in the jfr directory and are only built by a JDK 11 or later;
+//the engine itself stays Java 8 and reaches them through the interfaces below, loading them by
+//name. On a JVM without the flight recorder, or a build without the jfr classes, AVAILABLE is
+//false and every factory method returns null.
+public final class FlightEvents
+{
+    //event classes in the jfr directory, in the order of the factory methods
+    private static final String[] CLASSES = { "JfrSearchEvent", "JfrComputerMoveEvent", "JfrIterationEvent", "JfrTableEvent" };
+    
+    private static final Constructor<?>[] EVENTS = load();
+    public static final boolean AVAILABLE = EVENTS != null;     //events can be created
+    
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    
+    //Event timed from begin() to its end method, which commits it if the recording wants it
+    public interface Timed
+    {
+        void begin();
+    }
+    
+    //Event of one engine search (minichess.Search)
+    public interface SearchEvent extends Timed
+    {
+        void end(SearchResult result, String move, boolean book);
+    }
+    
+    //Event of one computer move of the game (minichess.ComputerMove)
+    public interface ComputerMoveEvent extends Timed
+    {
+        void end(String mode, String move, int depth, long nodes, long allocated);
+    }
+    
+    //Event of one iteration of one search thread (minichess.Iteration)
+    public interface IterationEvent extends Timed
+    {
+        void end(int depth, long nodes, int score, boolean finished);
+    }
+    
+    //Event of a transposition table being cleared or resized (minichess.TranspositionTable)
+    public interface TableEvent extends Timed
+    {
+        void end(String action, int entries, int previousEntries, long bytes);
+    }
+    
+    //Constructor of FlightEvents class (not used)
+    private FlightEvents()
+    {
+    }
+    
+    //Method returns a new search event, or null if events are not available
+    public static SearchEvent search()
+    {
+        return (SearchEvent) create(0);
+    }
+    
+    //Method returns a new computer move event, or null if events are not available
+    public static ComputerMoveEvent computerMove()
+    {
+        return (ComputerMoveEvent) create(1);
+    }
+    
+    //Method returns a new iteration event, or null if events are not available
+    public static IterationEvent iteration()
+    {
+        return (IterationEvent) create(2);
+    }
+    
+    //Method returns a new table event, or null if events are not available
+    public static TableEvent table()
+    {
+        return (TableEvent) create(3);
+    }
+    
+    //Method returns bytes allocated so far by the current thread (-1 if the JVM does not count them
+    //or has no com.sun.management)
+    public static long allocatedBytes()
+    {
+        try
+        {
+            if(THREADS instanceof com.sun.management.ThreadMXBean)
+                return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        catch(LinkageError | UnsupportedOperationException e)
+        {
+            //not counted on this JVM
+        }
+        
+        return -1;
+    }
+    
+    //Method creates an event of one of the classes (null if events are not available)
+    private static Object create(int index)
+    {
+        if(EVENTS == null)
+            return null;
+        
+        try
+        {
+            return EVENTS[index].newInstance();
+        }
+        catch(ReflectiveOperationException e)
+        {
+            throw new IllegalStateException("Cannot create flight recorder event " + CLASSES[index], e);
+        }
+    }
+    
+    //Method returns the constructors of the event classes, or null if the JVM has no flight recorder
+    //or the classes were not built (or were built for a newer JVM than this one)
+    private static Constructor<?>[] load()
+    {
+        try
+        {
+            Class.forName("jdk.jfr.Event");
+            
+            Constructor<?>[] events = new Constructor<?>[CLASSES.length];
+            for(int i = 0; i < CLASSES.length; i++)
+                events[i] = Class.forName(CLASSES[i]).getConstructor();
+            
+            return events;
+        }
+        catch(ClassNotFoundException | NoSuchMethodException | LinkageError e)
+        {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Load test program for EngineServer: every client plays games on its own connection with random
+//legal player moves, then throughput and move latency (player move sent to computer move received,
+//including resends after BUSY) are printed
+public class LoadGenerator
+{
+    private static final int MAX_MOVES_PER_GAME = 200;     //games longer than this are ended
+    private static final int MAX_WAIT = 16;                 //longest wait in milliseconds before sending after BUSY
+    
+    //Client class (one connection playing games one after another)
+    private static class Client implements Runnable
+    {
+        private final Variant variant;                  //variant the server plays
+        private final int port;                         //port of server
+        private final int games;                        //games to play
+        private final Random random;                    //picks player moves
+        private final MoveGenerator generator;          //legal player moves
+        private final int[] moves;                      //move buffer of generator
+        private final AtomicLong busy;                  //BUSY replies of all clients
+        
+        private long[] latencies;                       //latency of each move in nanoseconds
+        private int count;                              //moves played
+        private IOException failure;                    //error that ended the client (null if none)
+        
+        //Constructor of Client class
+        private Client(Variant variant, int port, int games, long seed, AtomicLong busy)
+        {
+            this.variant = variant;
+            this.port = port;
+            this.games = games;
+            this.random = new Random(seed);
+            this.generator = new MoveGenerator(variant);
+            this.moves = new int[MoveGenerator.MAX_MOVES];
+            this.busy = busy;
+            this.latencies = new long[1024];
+        }
+        
+        public void run()
+        {
+            try
+            {
+                Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+                try
+                {
+                    socket.setTcpNoDelay(true);
+                    BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), "US-ASCII"));
+                    PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), "US-ASCII"));
+                    
+                    for(int g = 0; g < games; g++)
+                        playGame(in, out);
+                    
+                    out.print("QUIT\n");
+                    out.flush();
+                }
+                finally
+                {
+                    socket.close();
+                }
+            }
+            catch(IOException e)
+            {
+                failure = e;
+            }
+        }
+        
+        //Method plays one game against the server
+        private void playGame(BufferedReader in, PrintWriter out) throws IOException
+        {
+            String[] words = request(in, out, "NEW");
+            if(!words[0].equals("SESSION"))
+                throw new IOException("Unexpected reply to NEW: " + Arrays.toString(words));
+            
+            String id = words[1];
+            BitBoard board = BitBoard.fromRows(words[2].split("/"));
+            if(board.size() != variant.size())
+                throw new IOException("Server plays " + board.size() + "x" + board.size() + " boards, not " + variant);
+            
+            for(int m = 0; m < MAX_MOVES_PER_GAME; m++)
+            {
+                int n = generator.generate(board, BitBoard.PLAYER, moves);
+                int move = moves[random.nextInt(n)];
+                int from = Move.from(move);
+                int to = Move.to(move);
+                String text = "MOVE " + id + " " + from / board.size() + " " + from % board.size() + " "
+                    + to / board.size() + " " + to % board.size();
+                
+                long start = System.nanoTime();
+                words = request(in, out, text);
+                for(int wait = 1; words[0].equals("BUSY"); wait = Math.min(wait * 2, MAX_WAIT))
+                {
+                    busy.incrementAndGet();         //queue was full, wait longer each time and send the move again
+                    try
+                    {
+                        Thread.sleep(wait);
+                    }
+                    catch(InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    words = request(in, out, text);
+                }
+                record(System.nanoTime() - start);
+                
+                if(words[0].equals("OVER"))         //player move ended the game
+                    break;
+                if(!words[0].equals("MOVE") || words.length != 8)
+                    throw new IOException("Unexpected reply to " + text + ": " + Arrays.toString(words));
+                
+                board.makeMove(move);
+                board.move(Integer.parseInt(words[1]), Integer.parseInt(words[2]),
+                    Integer.parseInt(words[3]), Integer.parseInt(words[4]));
+                
+                if(!words[7].equals(EngineServer.PLAY))
+                    break;
+            }
+            
+            request(in, out, "END " + id);
+        }
+        
+        //Method sends one request and splits the reply into words
+        private String[] request(BufferedReader in, PrintWriter out, String text) throws IOException
+        {
+            out.print(text);
+            out.print('\n');
+            out.flush();
+            
+            String reply = in.readLine();
+            if(reply == null)
+                throw new IOException("Server closed the connection");
+            
+            return reply.split(" ");
+        }
+        
+        //Method keeps the latency of one move
+        private void record(long nanos)
+        {
+            if(count == latencies.length)
+                latencies = Arrays.copyOf(latencies, count * 2);
+            latencies[count++] = nanos;
+        }
+    }
+    
+    public static void main(String[] args) throws InterruptedException
+    {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : EngineServer.DEFAULT_PORT;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        Variant variant = args.length > 3 ? Variant.named(args[3]) : Variant.STANDARD;     //must be the server's
+        
+        AtomicLong busy = new AtomicLong();
+        Client[] all = new Client[clients];
+        Thread[] threads = new Thread[clients];
+        for(int i = 0; i < clients; i++)
+        {
+            all[i] = new Client(variant, port, games, i, busy);
+            threads[i] = new Thread(all[i], "client-" + i);
+        }
+        
+        long start = System.nanoTime();
+        for(int i = 0; i < clients; i++)
+            threads[i].start();
+        for(int i = 0; i < clients; i++)
+            threads[i].join();
+        long elapsed = System.nanoTime() - start;
+        
+        //put latencies of every client together
+        int total = 0;
+        for(int i = 0; i < clients; i++)
+        {
+            if(all[i].failure != null)
+                System.out.println("Client " + i + " failed: " + all[i].failure.getMessage());
+            total += all[i].count;
+        }
+        
+        long[] latencies = new long[total];
+        int k = 0;
+        for(int i = 0; i < clients; i++)
+        {
+            System.arraycopy(all[i].latencies, 0, latencies, k, all[i].count);
+            k += all[i].count;
+        }
+        Arrays.sort(latencies);
+        
+        System.out.printf("clients %d  games %d  moves %d  time %.1f s%n", clients, clients * games, total, elapsed / 1e9);
+        System.out.printf("throughput %.1f moves/s  busy replies %d%n", total * 1e9 / elapsed, busy.get());
+        if(total > 0)
+        {
+            System.out.printf("latency ms  p50 %.1f  p99 %.1f  max %.1f%n", percentile(latencies, 50) / 1e6,
+                percentile(latencies, 99) / 1e6, latencies[total - 1] / 1e6);
+        }
+    }
+    
+    //Method returns a percentile of sorted values
+    private static long percentile(long[] sorted, int percent)
+    {
+        int index = (int) Math.ceil(sorted.length * percent / 100.0) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+}
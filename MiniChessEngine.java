@@ -0,0 +1,161 @@
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//This class is the engine of the game: a multithreaded alpha beta search behind the Engine interface
+//(one search runs at a time, callers on other threads wait for it)
+public class MiniChessEngine implements Engine
+{
+    public static final int DEPTH_LIMIT = 10;       //deepest iteration when limits give no depth
+    
+    private final int size;                         //size of boards searched
+    private final ParallelSearch search;            //search on all threads sharing one table
+    private final MoveGenerator generator;          //checks moves taken from the book
+    private final int[] moves;                      //move buffer of generator
+    private OpeningBook book;                       //first moves (may be null)
+    
+    //Constructor of MiniChessEngine class using every processor
+    public MiniChessEngine(int size)
+    {
+        this(size, DEPTH_LIMIT, Runtime.getRuntime().availableProcessors());
+    }
+    
+    //Constructor of MiniChessEngine class with a deepest iteration and number of threads
+    public MiniChessEngine(int size, int depthLimit, int threads)
+    {
+        this(Variant.forSize(size), depthLimit, threads);
+    }
+    
+    //Constructor of MiniChessEngine class playing a variant with a deepest iteration and number of threads
+    public MiniChessEngine(Variant variant, int depthLimit, int threads)
+    {
+        this.size = variant.size();
+        this.search = new ParallelSearch(variant, depthLimit, threads);
+        this.generator = new MoveGenerator(variant);
+        this.moves = new int[MoveGenerator.MAX_MOVES];
+    }
+    
+    //Constructor of MiniChessEngine class searching with a table that other engines may share
+    public MiniChessEngine(int size, int depthLimit, int threads, TranspositionTable table)
+    {
+        this(Variant.forSize(size), depthLimit, threads, table);
+    }
+    
+    //Constructor of MiniChessEngine class playing a variant with a table that other engines may share
+    public MiniChessEngine(Variant variant, int depthLimit, int threads, TranspositionTable table)
+    {
+        this.size = variant.size();
+        this.search = new ParallelSearch(variant, depthLimit, threads, table);
+        this.generator = new MoveGenerator(variant);
+        this.moves = new int[MoveGenerator.MAX_MOVES];
+    }
+    
+    //Method returns size of boards searched
+    public int size()
+    {
+        return size;
+    }
+    
+    //Method turns reproducible mode on or off (single thread, no time limit, cleared table and history)
+    public synchronized void setReproducible(boolean reproducible)
+    {
+        search.setReproducible(reproducible);
+    }
+    
+    //Method sets solved endgames to look up instead of searching (null for none)
+    public synchronized void setTablebase(Tablebase tablebase)
+    {
+        search.setTablebase(tablebase);
+    }
+    
+    //Method sets book of first moves to answer from before searching (null for none)
+    public synchronized void setBook(OpeningBook book)
+    {
+        this.book = book;
+    }
+    
+    //Method searches a copy of a board so the caller's board is never touched by search threads
+    public SearchResult search(BitBoard board, int side, SearchLimits limits)
+    {
+        return search(board, side, limits, null);
+    }
+    
+    //Method searches a copy of a board, also stopping when another thread sets the flag (may be null)
+    public synchronized SearchResult search(BitBoard board, int side, SearchLimits limits, AtomicBoolean stop)
+    {
+        if(board.size() != size)
+            throw new IllegalArgumentException("Engine searches boards of size " + size + ": " + board.size());
+        if(side != BitBoard.COMPUTER && side != BitBoard.PLAYER)
+            throw new IllegalArgumentException("Unknown side: " + side);
+        
+        long start = System.nanoTime();
+        FlightEvents.SearchEvent event = FlightEvents.search();
+        if(event != null)
+            event.begin();
+        
+        //answer straight from the book if it holds a legal move for this board
+        if(book != null)
+        {
+            long entry = book.probe(board, side);
+            if(entry != 0 && isLegal(board, side, OpeningBook.move(entry)))
+            {
+                int move = OpeningBook.move(entry);
+                return report(new SearchResult(size, move, OpeningBook.score(entry), new int[] { move }, 0, 0, System.nanoTime() - start),
+                    event, true);
+            }
+        }
+        
+        BitBoard copy = new BitBoard(board);
+        int move = search.bestMove(copy, side, limits, stop);
+        long elapsed = System.nanoTime() - start;
+        
+        int[] line = search.principalVariation(copy, side, move);
+        return report(new SearchResult(size, move, search.score(), line, search.completedDepth(), search.nodes(), elapsed,
+            search.stats()), event, false);
+    }
+    
+    //Method hands a result to the JMX monitor and the flight recorder before returning it
+    private SearchResult report(SearchResult result, FlightEvents.SearchEvent event, boolean book)
+    {
+        SearchMonitor.get().record(result);
+        
+        if(event != null)
+            event.end(result, Move.toString(result.bestMove(), size), book);
+        
+        return result;
+    }
+    
+    //Method returns true if a move is one of the legal moves of a side
+    private boolean isLegal(BitBoard board, int side, int move)
+    {
+        int count = generator.generate(board, side, moves);
+        for(int i = 0; i < count; i++)
+            if(moves[i] == move)
+                return true;
+        
+        return false;
+    }
+    
+    //Method sets whether every search starts a new generation of the transposition table (turn it
+    //off when the table is shared with other engines and its owner starts generations itself)
+    public synchronized void setTableAging(boolean aging)
+    {
+        search.setAging(aging);
+    }
+    
+    //Method replaces the transposition table with an empty one of a number of entries (a power of two)
+    public synchronized void setTableEntries(int entries)
+    {
+        search.resizeTable(entries);
+    }
+    
+    //Method clears the transposition table and the killers and history of every search thread
+    public synchronized void newGame()
+    {
+        search.newGame();
+    }
+    
+    //Method stops the helper threads
+    public void close()
+    {
+        search.shutdown();
+    }
+}
@@ -0,0 +1,57 @@
+//This class packs a move into an int (from square, to square, moved piece and captured piece)
+public final class Move
+{
+    public static final int NONE = 0;       //no move (from and to can never both be square 0)
+    
+    //Constructor is private since class only has static helpers
+    private Move()
+    {
+    }
+    
+    //Method packs a move: bits 0-5 from, bits 6-11 to, bits 12-14 piece, bits 15-17 captured piece + 1
+    public static int encode(int from, int to, int piece, int captured)
+    {
+        return from | (to << 6) | (piece << 12) | ((captured + 1) << 15);
+    }
+    
+    //Method returns from square of a move
+    public static int from(int move)
+    {
+        return move & 63;
+    }
+    
+    //Method returns to square of a move
+    public static int to(int move)
+    {
+        return (move >>> 6) & 63;
+    }
+    
+    //Method returns moved piece of a move
+    public static int piece(int move)
+    {
+        return (move >>> 12) & 7;
+    }
+    
+    //Method returns captured piece of a move (BitBoard.NONE if no capture)
+    public static int captured(int move)
+    {
+        return ((move >>> 15) & 7) - 1;
+    }
+    
+    //Method returns true if move captures a piece
+    public static boolean isCapture(int move)
+    {
+        return (move & (7 << 15)) != 0;
+    }
+    
+    //Method writes a move as piece symbol and rows and columns of both squares, e.g. "R 0 1 1 1"
+    public static String toString(int move, int size)
+    {
+        if(move == NONE)
+            return "none";
+        
+        int from = from(move);
+        int to = to(move);
+        return BitBoard.symbolOf(piece(move)) + " " + from / size + " " + from % size + " " + to / size + " " + to % size;
+    }
+}
@@ -0,0 +1,117 @@
+//This class generates every legal move of one side from step tables built for a variant
+public class MoveGenerator
+{
+    public static final int MAX_MOVES = 64;         //room for moves of one side on boards up to 8x8
+    
+    private final long[][] targets;         //target squares per piece kind and square
+    
+    //Constructor takes target tables of the standard game of a board size
+    public MoveGenerator(int size)
+    {
+        this(Variant.forSize(size));
+    }
+    
+    //Constructor takes target tables of a variant
+    public MoveGenerator(Variant variant)
+    {
+        int size = variant.size();
+        
+        this.targets = new long[3][];
+        for(int kind = 0; kind < 3; kind++)
+        {
+            targets[kind] = new long[size * size];
+            for(int sq = 0; sq < size * size; sq++)
+                targets[kind][sq] = variant.targets(kind, sq);
+        }
+    }
+    
+    //Method returns target squares of a piece kind (0 king, 1 rook, 2 bishop) on a square
+    public long targets(int kind, int sq)
+    {
+        return targets[kind][sq];
+    }
+    
+    //Method fills list with every legal move of a side and returns how many there are
+    public int generate(BitBoard board, int side, int[] list)
+    {
+        int count = 0;
+        int first = side == BitBoard.COMPUTER ? BitBoard.COMP_KING : BitBoard.PLAYER_KING;
+        int enemy = side == BitBoard.COMPUTER ? BitBoard.PLAYER_KING : BitBoard.COMP_KING;
+        long own = board.occupied(side);
+        long other = board.occupied(1 - side);
+        
+        for(int kind = 0; kind < 3; kind++)
+        {
+            int piece = first + kind;
+            long from = board.pieces(piece);
+            
+            while(from != 0)
+            {
+                int sq = Long.numberOfTrailingZeros(from);
+                from &= from - 1;
+                
+                long to = targets[kind][sq] & ~own;
+                while(to != 0)
+                {
+                    int t = Long.numberOfTrailingZeros(to);
+                    to &= to - 1;
+                    
+                    int captured = BitBoard.NONE;
+                    if((other & (1L << t)) != 0)
+                    {
+                        //find which enemy piece is on the target
+                        for(int p = enemy; p < enemy + 3; p++)
+                            if((board.pieces(p) & (1L << t)) != 0)
+                                captured = p;
+                    }
+                    
+                    list[count++] = Move.encode(sq, t, piece, captured);
+                }
+            }
+        }
+        
+        return count;
+    }
+    
+    //Method fills list with the captures of a side and returns how many there are
+    public int generateCaptures(BitBoard board, int side, int[] list)
+    {
+        int count = 0;
+        int first = side == BitBoard.COMPUTER ? BitBoard.COMP_KING : BitBoard.PLAYER_KING;
+        int enemy = side == BitBoard.COMPUTER ? BitBoard.PLAYER_KING : BitBoard.COMP_KING;
+        long other = board.occupied(1 - side);
+        
+        for(int kind = 0; kind < 3; kind++)
+        {
+            int piece = first + kind;
+            for(long from = board.pieces(piece); from != 0; from &= from - 1)
+            {
+                int sq = Long.numberOfTrailingZeros(from);
+                
+                for(long to = targets[kind][sq] & other; to != 0; to &= to - 1)
+                {
+                    int t = Long.numberOfTrailingZeros(to);
+                    
+                    int captured = enemy;
+                    while((board.pieces(captured) & (1L << t)) == 0)
+                        captured++;
+                    
+                    list[count++] = Move.encode(sq, t, piece, captured);
+                }
+            }
+        }
+        
+        return count;
+    }
+    
+    //Method returns true if a side may move from one square to another
+    public boolean isLegal(BitBoard board, int side, int from, int to)
+    {
+        int piece = board.pieceAt(from);
+        if(piece == BitBoard.NONE || BitBoard.sideOf(piece) != side)
+            return false;
+        
+        long mask = targets[piece % 3][from] & ~board.occupied(side);
+        return (mask & (1L << to)) != 0;
+    }
+}
@@ -0,0 +1,111 @@
+//This class is a reusable list of moves (packed as in Move) with an ordering score beside each one.
+//A search keeps one list per ply, made once by stack(), and refills it at every board, so the
+//loop over children allocates nothing.
+public final class MoveList
+{
+    private final int[] moves;              //packed moves
+    private final int[] scores;             //ordering score of each move, highest tried first
+    private int size;                       //moves in the list
+    
+    //Constructor of MoveList class with room for every move of one side
+    public MoveList()
+    {
+        this(MoveGenerator.MAX_MOVES);
+    }
+    
+    //Constructor of MoveList class with room for a number of moves
+    public MoveList(int capacity)
+    {
+        this.moves = new int[capacity];
+        this.scores = new int[capacity];
+    }
+    
+    //Method makes one list per ply, indexed by ply
+    public static MoveList[] stack(int plies)
+    {
+        MoveList[] stack = new MoveList[plies];
+        for(int i = 0; i < plies; i++)
+            stack[i] = new MoveList();
+        
+        return stack;
+    }
+    
+    //Method replaces the list with the legal moves of a side, all scored 0
+    public int generate(MoveGenerator generator, BitBoard board, int side)
+    {
+        size = generator.generate(board, side, moves);
+        for(int i = 0; i < size; i++)
+            scores[i] = 0;
+        
+        return size;
+    }
+    
+    //Method empties the list
+    public void clear()
+    {
+        size = 0;
+    }
+    
+    //Method adds a move with its ordering score
+    public void add(int move, int score)
+    {
+        moves[size] = move;
+        scores[size] = score;
+        size++;
+    }
+    
+    //Method returns number of moves
+    public int size()
+    {
+        return size;
+    }
+    
+    //Method returns true if there are no moves
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+    
+    //Method returns move at an index
+    public int move(int i)
+    {
+        return moves[i];
+    }
+    
+    //Method returns ordering score at an index
+    public int score(int i)
+    {
+        return scores[i];
+    }
+    
+    //Method sets ordering score at an index
+    public void setScore(int i, int score)
+    {
+        scores[i] = score;
+    }
+    
+    //Method scores captures by the value of the piece taken (king 3, rook 2, bishop 1), other moves 0
+    public void scoreCaptures()
+    {
+        for(int i = 0; i < size; i++)
+            scores[i] = Move.isCapture(moves[i]) ? 3 - Move.captured(moves[i]) % 3 : 0;
+    }
+    
+    //Method brings the highest scored move from index i on to index i and returns it
+    //(selection one step at a time, so a cutoff saves sorting the rest)
+    public int next(int i)
+    {
+        int best = i;
+        for(int k = i + 1; k < size; k++)
+            if(scores[k] > scores[best])
+                best = k;
+        
+        if(best != i)
+        {
+            int move = moves[i]; moves[i] = moves[best]; moves[best] = move;
+            int score = scores[i]; scores[i] = scores[best]; scores[best] = score;
+        }
+        
+        return moves[i];
+    }
+}
@@ -0,0 +1,285 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+//This class holds the computer's best reply to every first player move from every starting layout
+//of one variant. The file is a hash table read through a memory map:
+//  header  MAGIC, size, slots (a power of two), key of the variant (Variant.key())
+//  slots   16 bytes each: key (0 if empty), move, score, found at key & (slots - 1) or the slots after it
+//The key is the Zobrist key of the board with the side to move, as in the transposition table
+public class OpeningBook
+{
+    public static final String DEFAULT_FILE = "opening.book";     //file the game opens if it exists
+    
+    private static final int MAGIC = 0x4D434232;    //"MCB2", books before variants were "MCBK"
+    private static final int HEADER = 20;           //bytes before the slots
+    
+    private final int size;                 //size of boards
+    private final int mask;                 //slots - 1
+    private final ByteBuffer data;          //slots
+    
+    //Constructor of OpeningBook class
+    private OpeningBook(int size, int slots, ByteBuffer data)
+    {
+        this.size = size;
+        this.mask = slots - 1;
+        this.data = data;
+    }
+    
+    //Method returns move and score stored for a board with a side to move (0 if there are none)
+    public long probe(BitBoard board, int side)
+    {
+        if(board.size() != size)
+            return 0L;
+        
+        long key = board.key() ^ Zobrist.side(side);
+        if(key == 0)
+            return 0L;
+        
+        for(int slot = (int) key & mask; ; slot = (slot + 1) & mask)
+        {
+            long stored = data.getLong(HEADER + slot * 16);
+            if(stored == 0)
+                return 0L;
+            if(stored == key)
+                return data.getLong(HEADER + slot * 16 + 8);
+        }
+    }
+    
+    //Method returns move of a probed entry
+    public static int move(long entry)
+    {
+        return (int) (entry >>> 32);
+    }
+    
+    //Method returns score of a probed entry
+    public static int score(long entry)
+    {
+        return (int) entry;
+    }
+    
+    //Method maps a book file of a variant into memory (fails if it was built for another variant)
+    public static OpeningBook open(File file, Variant variant) throws IOException
+    {
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try
+        {
+            if(in.readInt() != MAGIC)
+                throw new IOException("Not an opening book file: " + file);
+            
+            int size = in.readInt();
+            int slots = in.readInt();
+            if(size != variant.size() || in.readLong() != variant.key())
+                throw new IOException("Opening book file " + file + " was not built for variant " + variant);
+            if(slots <= 0 || (slots & (slots - 1)) != 0 || in.length() != HEADER + slots * 16L)
+                throw new IOException("Damaged opening book file: " + file);
+            
+            ByteBuffer data = in.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, in.length());
+            return new OpeningBook(size, slots, data);
+        }
+        finally
+        {
+            in.close();                 //mapping stays valid after the file is closed
+        }
+    }
+    
+    //Method opens the default file if it exists and was built for a variant (null otherwise)
+    public static OpeningBook openDefault(Variant variant)
+    {
+        File file = new File(DEFAULT_FILE);
+        if(!file.isFile())
+            return null;
+        
+        try
+        {
+            return open(file, variant);
+        }
+        catch(IOException e)
+        {
+            return null;
+        }
+    }
+    
+    //Method lists every distinct order of the pieces of a back row
+    public static ArrayList<String> layouts(String row)
+    {
+        ArrayList<String> layouts = new ArrayList<String>();
+        char[] pieces = row.toCharArray();
+        Arrays.sort(pieces);
+        permute(pieces, new char[pieces.length], new boolean[pieces.length], 0, layouts);
+        return layouts;
+    }
+    
+    //Method adds orders that start with the pieces placed so far, skipping repeats of equal pieces
+    private static void permute(char[] pieces, char[] row, boolean[] used, int placed, ArrayList<String> layouts)
+    {
+        if(placed == pieces.length)
+        {
+            layouts.add(new String(row));
+            return;
+        }
+        
+        for(int i = 0; i < pieces.length; i++)
+        {
+            if(used[i] || (i > 0 && pieces[i] == pieces[i - 1] && !used[i - 1]))
+                continue;
+            
+            used[i] = true;
+            row[placed] = pieces[i];
+            permute(pieces, row, used, placed + 1, layouts);
+            used[i] = false;
+        }
+    }
+    
+    //Method searches the computer's reply to every first player move of a variant from the first
+    //computer layouts (all of them if layouts is 0) against every player layout, then writes the book
+    public static int build(File file, final Variant variant, int depth, int threads, int layouts) throws IOException, InterruptedException
+    {
+        final ArrayList<String> rows = layouts(variant.backRow());
+        int computerRows = layouts > 0 ? Math.min(layouts, rows.size()) : rows.size();
+        final SearchLimits limits = SearchLimits.depth(depth);
+        final ThreadLocal<MiniChessEngine> engines = new ThreadLocal<MiniChessEngine>();
+        final int depthLimit = depth;
+        
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ArrayList<Future<long[]>> results = new ArrayList<Future<long[]>>();
+        
+        //one task per pair of layouts: key, move and score of the reply to every first player move
+        for(int c = 0; c < computerRows; c++)
+        {
+            for(int p = 0; p < rows.size(); p++)
+            {
+                final String top = rows.get(c);
+                final String bottom = rows.get(p).toLowerCase();
+                results.add(pool.submit(new Callable<long[]>()
+                {
+                    public long[] call()
+                    {
+                        MiniChessEngine engine = engines.get();
+                        if(engine == null)
+                        {
+                            engine = new MiniChessEngine(variant, depthLimit, 1,
+                                new TranspositionTable(1 << 18, TranspositionTable.Replacement.DEPTH_PREFERRED));
+                            engines.set(engine);
+                        }
+                        
+                        return replies(engine, variant, limits, top, bottom);
+                    }
+                }));
+            }
+        }
+        
+        ArrayList<long[]> entries = new ArrayList<long[]>();
+        try
+        {
+            for(int i = 0; i < results.size(); i++)
+                entries.add(results.get(i).get());
+        }
+        catch(ExecutionException e)
+        {
+            throw new IllegalStateException("Book search failed", e.getCause());
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+        
+        return write(file, variant, entries);
+    }
+    
+    //Method searches the reply to every first player move of one starting layout
+    private static long[] replies(MiniChessEngine engine, Variant variant, SearchLimits limits, String top, String bottom)
+    {
+        BitBoard board = variant.board(top, bottom);
+        
+        int[] list = new int[MoveGenerator.MAX_MOVES];
+        int count = new MoveGenerator(variant).generate(board, BitBoard.PLAYER, list);
+        long[] entries = new long[count * 2];
+        
+        for(int i = 0; i < count; i++)
+        {
+            board.makeMove(list[i]);
+            engine.newGame();           //table, killers and history cleared: same reply on any thread
+            SearchResult result = engine.search(board, BitBoard.COMPUTER, limits);
+            entries[2 * i] = board.key() ^ Zobrist.side(BitBoard.COMPUTER);
+            entries[2 * i + 1] = ((long) result.bestMove() << 32) | (result.score() & 0xFFFFFFFFL);
+            board.unmakeMove(list[i]);
+        }
+        
+        return entries;
+    }
+    
+    //Method writes entries into a hash table file at most half full, returning how many were written
+    private static int write(File file, Variant variant, ArrayList<long[]> entries) throws IOException
+    {
+        int count = 0;
+        for(int i = 0; i < entries.size(); i++)
+            count += entries.get(i).length / 2;
+        
+        int slots = Integer.highestOneBit(Math.max(count, 1) * 2 - 1) << 1;
+        long[] table = new long[slots * 2];
+        int written = 0;
+        
+        for(int i = 0; i < entries.size(); i++)
+        {
+            long[] e = entries.get(i);
+            for(int k = 0; k < e.length; k += 2)
+            {
+                if(e[k] == 0)           //key 0 marks an empty slot
+                    continue;
+                
+                int slot = (int) e[k] & (slots - 1);
+                while(table[slot * 2] != 0 && table[slot * 2] != e[k])
+                    slot = (slot + 1) & (slots - 1);
+                
+                if(table[slot * 2] == 0)
+                    written++;
+                table[slot * 2] = e[k];
+                table[slot * 2 + 1] = e[k + 1];
+            }
+        }
+        
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+        try
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(variant.size());
+            out.writeInt(slots);
+            out.writeLong(variant.key());
+            for(int i = 0; i < table.length; i++)
+                out.writeLong(table[i]);
+        }
+        finally
+        {
+            out.close();
+        }
+        
+        return written;
+    }
+    
+    //Program builds the book
+    public static void main(String[] args) throws IOException, InterruptedException
+    {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : MiniChessEngine.DEPTH_LIMIT;
+        File file = new File(args.length > 1 ? args[1] : DEFAULT_FILE);
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int layouts = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+        Variant variant = args.length > 4 ? Variant.named(args[4]) : Variant.STANDARD;
+        
+        long start = System.nanoTime();
+        int entries = build(file, variant, depth, threads, layouts);
+        System.out.printf("%d replies for %s written to %s in %.1f s%n", entries, variant, file, (System.nanoTime() - start) / 1e9);
+    }
+}
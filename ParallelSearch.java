@@ -0,0 +1,258 @@
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//This class searches with several threads (lazy SMP): helper threads search their own copy of
+//the board at the same time as the main search and share one transposition table with it
+public class ParallelSearch
+{
+    private static final int TABLE_ENTRIES = 1 << 22;  //default shared table size
+    
+    private final TranspositionTable table;     //table shared by all threads
+    private final Search[] searches;            //one search per thread, first one is the main search
+    private final ExecutorService helpers;      //threads of helper searches (null if single thread)
+    private final SearchStats stats;            //counts of all threads in last search
+    
+    private boolean reproducible;               //single thread, fixed depth, cleared table and history
+    private boolean aging = true;               //every search starts a new table generation
+    private long nodes;                         //boards visited by all threads in last search
+    private int completedDepth;                 //deepest finished iteration of main search
+    private int score;                          //score of best move of last search
+    
+    //Constructor of ParallelSearch class
+    public ParallelSearch(int size, int limit, int threads)
+    {
+        this(Variant.forSize(size), limit, threads);
+    }
+    
+    //Constructor of ParallelSearch class for a variant
+    public ParallelSearch(Variant variant, int limit, int threads)
+    {
+        this(variant, limit, threads, new TranspositionTable(TABLE_ENTRIES, TranspositionTable.Replacement.DEPTH_PREFERRED));
+    }
+    
+    //Constructor of ParallelSearch class with a given shared table
+    public ParallelSearch(int size, int limit, int threads, TranspositionTable table)
+    {
+        this(Variant.forSize(size), limit, threads, table);
+    }
+    
+    //Constructor of ParallelSearch class for a variant with a given shared table
+    public ParallelSearch(Variant variant, int limit, int threads, TranspositionTable table)
+    {
+        if(threads < 1)
+            throw new IllegalArgumentException("Threads must be at least 1: " + threads);
+        
+        this.table = table;
+        this.searches = new Search[threads];
+        for(int i = 0; i < threads; i++)
+            searches[i] = new Search(variant, limit, table);
+        this.stats = new SearchStats(limit);
+        
+        this.helpers = threads > 1 ? Executors.newFixedThreadPool(threads - 1, new ThreadFactory()
+        {
+            //helper threads must not keep the program alive
+            public Thread newThread(Runnable r)
+            {
+                Thread t = new Thread(r, "search-helper");
+                t.setDaemon(true);
+                return t;
+            }
+        }) : null;
+    }
+    
+    //Method turns reproducible mode on or off (single thread, no time limit, cleared table and history)
+    //A reproducible search is bounded by depth or nodes only, so limits holding just a time are refused
+    public void setReproducible(boolean reproducible)
+    {
+        this.reproducible = reproducible;
+    }
+    
+    //Method sets whether every search starts a new table generation; turn it off when the table is
+    //shared with other engines and its owner starts generations itself
+    public void setAging(boolean aging)
+    {
+        this.aging = aging;
+    }
+    
+    //Method sets solved endgames of every thread (null for none)
+    public void setTablebase(Tablebase tablebase)
+    {
+        for(int i = 0; i < searches.length; i++)
+            searches[i].setTablebase(tablebase);
+    }
+    
+    //Method selects the search algorithm of every thread
+    public void setAlgorithm(Search.Algorithm algorithm)
+    {
+        for(int i = 0; i < searches.length; i++)
+            searches[i].setAlgorithm(algorithm);
+    }
+    
+    //Method turns the capture search past the horizon on or off in every thread
+    public void setQuiescence(boolean quiescence)
+    {
+        for(int i = 0; i < searches.length; i++)
+            searches[i].setQuiescence(quiescence);
+    }
+    
+    //Method returns number of threads
+    public int threads()
+    {
+        return searches.length;
+    }
+    
+    //Method returns number of boards visited by all threads in last search
+    public long nodes()
+    {
+        return nodes;
+    }
+    
+    //Method returns counts of all threads in last search
+    public SearchStats stats()
+    {
+        return stats;
+    }
+    
+    //Method returns deepest finished iteration of last search
+    public int completedDepth()
+    {
+        return completedDepth;
+    }
+    
+    //Method returns score of best move of last search
+    public int score()
+    {
+        return score;
+    }
+    
+    //Method finds best computer move of a board within a time budget (0 for no budget)
+    public int bestMove(BitBoard board, long timeMillis)
+    {
+        return bestMove(board, BitBoard.COMPUTER, SearchLimits.time(timeMillis));
+    }
+    
+    //Method finds best move of a side within search limits (node limit counts boards of the main search)
+    public int bestMove(BitBoard board, int side, SearchLimits limits)
+    {
+        return bestMove(board, side, limits, null);
+    }
+    
+    //Method finds best move of a side within search limits, also stopping when another thread sets
+    //the flag (may be null); helpers stop once the main search returns
+    public int bestMove(BitBoard board, final int side, final SearchLimits limits, AtomicBoolean cancel)
+    {
+        if(reproducible && limits.timeMillis() > 0 && limits.depth() == 0 && limits.nodes() == 0)
+            throw new IllegalArgumentException("Reproducible search needs a depth or node limit: " + limits);
+        
+        Search main = searches[0];
+        if(aging)
+            table.newSearch();              //entries of earlier moves give way to this search's
+        
+        if(reproducible || helpers == null)
+        {
+            if(reproducible)
+            {
+                table.clear();          //same board always gives same move
+                main.clearHistory();
+            }
+            
+            SearchLimits own = reproducible ? new SearchLimits(limits.depth(), 0, limits.nodes()) : limits;
+            int move = main.bestMove(board, side, own, cancel, 1);
+            collect(1);
+            return move;
+        }
+        
+        final AtomicBoolean stop = new AtomicBoolean(false);
+        ArrayList<Future<?>> running = new ArrayList<Future<?>>();
+        
+        //start helpers on copies of the board, half of them one ply deeper to spread the work
+        for(int i = 1; i < searches.length; i++)
+        {
+            final Search helper = searches[i];
+            final BitBoard copy = new BitBoard(board);
+            final int firstDepth = 1 + (i & 1);
+            
+            running.add(helpers.submit(new Runnable()
+            {
+                public void run()
+                {
+                    helper.bestMove(copy, side, limits, stop, firstDepth);
+                }
+            }));
+        }
+        
+        int move = main.bestMove(board, side, limits, cancel, 1);
+        
+        stop.set(true);                 //main search is done, stop helpers
+        for(int i = 0; i < running.size(); i++)
+        {
+            try
+            {
+                running.get(i).get();
+            }
+            catch(InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            catch(ExecutionException e)
+            {
+                throw new IllegalStateException("Helper search failed", e.getCause());
+            }
+        }
+        
+        collect(searches.length);
+        return move;
+    }
+    
+    //Method returns best move of last search followed by the expected replies stored in the table
+    public int[] principalVariation(BitBoard board, int side, int move)
+    {
+        return searches[0].principalVariation(board, side, move, Math.max(completedDepth, 1));
+    }
+    
+    //Method clears the shared table and the killers and history of every thread, so the next search
+    //does not depend on earlier ones (for example before a new game)
+    public void newGame()
+    {
+        table.clear();
+        for(int i = 0; i < searches.length; i++)
+            searches[i].clearHistory();
+    }
+    
+    //Method replaces the shared table with an empty one of a number of entries (between searches only)
+    public void resizeTable(int entries)
+    {
+        table.resize(entries);
+    }
+    
+    //Method adds up statistics of the threads that took part
+    private void collect(int threads)
+    {
+        nodes = 0;
+        for(int i = 0; i < threads; i++)
+            nodes += searches[i].nodes();
+        
+        if(SearchStats.ENABLED)
+        {
+            stats.reset();
+            for(int i = 0; i < threads; i++)
+                stats.add(searches[i].stats());
+        }
+        
+        completedDepth = searches[0].completedDepth();
+        score = searches[0].score();
+    }
+    
+    //Method stops helper threads
+    public void shutdown()
+    {
+        if(helpers != null)
+            helpers.shutdownNow();
+    }
+}
@@ -0,0 +1,182 @@
+//Program counts leaf boards of the move tree (perft) to check and time the move generator
+public class Perft
+{
+    //reference boards: name, side to move, rows (top row is computer side)
+    private static final String[][] POSITIONS =
+    {
+        { "opening", "c", "RKBBR.", "......", "......", "......", "......", ".rkbbr" },
+        { "mirrored", "p", "BRK.RB", "......", "......", "......", "......", "rb.kbr" },
+        { "middle", "c", "R....B", "..K.B.", ".r..R.", "..b.k.", "....b.", "r....." },
+        { "captures", "p", "......", ".RbR..", ".bKr..", "..Bk..", "..rB..", "......" },
+        { "endgame", "c", "......", "..K...", "......", "...R..", "....k.", "......" },
+        { "kingtake", "p", "K.....", ".k....", "......", "......", "......", ".....R" }
+    };
+    
+    //expected leaf counts of each reference board for depth 1, 2, 3, ...
+    private static final long[][] EXPECTED =
+    {
+        { 10, 100, 1160, 13688, 172870, 2225476 },
+        { 10, 90, 1017, 10848, 132000, 1556823 },
+        { 16, 297, 4195, 73459, 1020574, 17504103 },
+        { 18, 294, 4947, 80271, 1326864, 21624011 },
+        { 12, 96, 1011, 5667, 56859, 366135 },
+        { 8, 35, 210, 1378, 9064, 66400 }
+    };
+    
+    private final MoveGenerator generator;  //move generator under test
+    private final int[][] moves;            //move buffer per ply
+    
+    //Constructor of Perft class
+    public Perft(int size, int maxDepth)
+    {
+        this.generator = new MoveGenerator(size);
+        this.moves = new int[maxDepth + 1][MoveGenerator.MAX_MOVES];
+    }
+    
+    //Method counts leaf boards depth plies below board (side is the side to move)
+    public long perft(BitBoard board, int side, int depth)
+    {
+        return perft(board, side, depth, 0);
+    }
+    
+    //Method counts leaf boards, counting the last ply in bulk without making its moves
+    private long perft(BitBoard board, int side, int depth, int ply)
+    {
+        if(depth <= 0)
+            return 1;
+        
+        if(!board.hasKing('K') || !board.hasKing('k'))  //game is over, no moves follow
+            return 0;
+        
+        int[] list = moves[ply];
+        int count = generator.generate(board, side, list);
+        
+        if(depth == 1)
+            return count;
+        
+        long nodes = 0;
+        for(int i = 0; i < count; i++)
+        {
+            board.makeMove(list[i]);
+            nodes += perft(board, 1 - side, depth - 1, ply + 1);
+            board.unmakeMove(list[i]);
+        }
+        
+        return nodes;
+    }
+    
+    //Method prints leaf count below every root move and returns the total
+    public long divide(BitBoard board, int side, int depth)
+    {
+        if(depth <= 0)              //board itself is the only leaf, as in perft
+            return 1;
+        
+        int[] list = new int[MoveGenerator.MAX_MOVES];
+        int count = generator.generate(board, side, list);
+        int size = board.size();
+        
+        long total = 0;
+        for(int i = 0; i < count; i++)
+        {
+            int from = Move.from(list[i]);
+            int to = Move.to(list[i]);
+            
+            board.makeMove(list[i]);
+            long nodes = perft(board, 1 - side, depth - 1, 1);
+            board.unmakeMove(list[i]);
+            
+            System.out.println(BitBoard.symbolOf(Move.piece(list[i])) + " " + from / size + " " + from % size
+                               + " " + to / size + " " + to % size + ": " + nodes);
+            total += nodes;
+        }
+        
+        return total;
+    }
+    
+    public static void main(String[] args)
+    {
+        if(args.length == 0 || args[0].equals("verify"))
+        {
+            System.exit(verify() ? 0 : 1);
+        }
+        else if(args[0].equals("divide") || args[0].equals("count"))
+        {
+            //perft count|divide <position name> <depth>
+            String[] position = find(args[1]);
+            int depth = Integer.parseInt(args[2]);
+            if(depth < 0)
+                throw new IllegalArgumentException("Depth cannot be negative: " + depth);
+            BitBoard board = board(position);
+            int side = side(position);
+            Perft perft = new Perft(board.size(), depth);
+            
+            long start = System.nanoTime();
+            long nodes = args[0].equals("divide") ? perft.divide(board, side, depth) : perft.perft(board, side, depth);
+            long nanos = System.nanoTime() - start;
+            
+            System.out.println("Nodes: " + nodes);
+            System.out.printf("Time: %.3f s, %.0f nodes/s%n", nanos / 1e9, nodes * 1e9 / Math.max(nanos, 1));
+        }
+        else
+        {
+            System.out.println("Usage: java Perft [verify | count <position> <depth> | divide <position> <depth>]");
+        }
+    }
+    
+    //Method checks every reference board against its expected counts
+    private static boolean verify()
+    {
+        boolean ok = true;
+        long totalNodes = 0;
+        long totalNanos = 0;
+        
+        for(int k = 0; k < POSITIONS.length; k++)
+        {
+            BitBoard board = board(POSITIONS[k]);
+            Perft perft = new Perft(board.size(), EXPECTED[k].length);
+            
+            for(int depth = 1; depth <= EXPECTED[k].length; depth++)
+            {
+                long start = System.nanoTime();
+                long nodes = perft.perft(board, side(POSITIONS[k]), depth);
+                long nanos = System.nanoTime() - start;
+                
+                boolean match = nodes == EXPECTED[k][depth - 1];
+                ok &= match;
+                totalNodes += nodes;
+                totalNanos += nanos;
+                
+                System.out.printf("%-10s depth %d: %12d %s%n", POSITIONS[k][0], depth, nodes,
+                                  match ? "ok" : "FAILED, expected " + EXPECTED[k][depth - 1]);
+            }
+        }
+        
+        System.out.printf("%s, %d nodes at %.0f nodes/s%n", ok ? "All counts match" : "Counts differ",
+                          totalNodes, totalNodes * 1e9 / Math.max(totalNanos, 1));
+        return ok;
+    }
+    
+    //Method finds a reference board by name
+    private static String[] find(String name)
+    {
+        for(int k = 0; k < POSITIONS.length; k++)
+            if(POSITIONS[k][0].equals(name))
+                return POSITIONS[k];
+        
+        throw new IllegalArgumentException("Unknown position: " + name);
+    }
+    
+    //Method builds board of a reference position
+    private static BitBoard board(String[] position)
+    {
+        String[] rows = new String[position.length - 2];
+        System.arraycopy(position, 2, rows, 0, rows.length);
+        return BitBoard.fromRows(rows);
+    }
+    
+    //Method returns side to move of a reference position
+    private static int side(String[] position)
+    {
+        return position[1].equals("c") ? BitBoard.COMPUTER : BitBoard.PLAYER;
+    }
+}
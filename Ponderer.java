@@ -0,0 +1,169 @@
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//This class searches on the opponent's time: after the engine moves it plays the reply it expects
+//on a copy of the board and searches its own answer in the background, with no time limit, while
+//the opponent thinks. When the opponent has moved:
+//  ponder hit   the board is the one being searched, so the search gets the rest of the move's
+//               time budget counted from when pondering started, and answers at once if the
+//               opponent took longer than that
+//  ponder miss  the search is stopped and a normal search starts, on a table already warmed by
+//               the boards the two positions share
+public class Ponderer
+{
+    private final MiniChessEngine engine;           //engine searching (its table is the one warmed)
+    private final ExecutorService thread;           //runs the ponder search
+    
+    private Future<SearchResult> pending;           //ponder search running (null if none)
+    private AtomicBoolean stop;                     //stops the ponder search
+    private BitBoard expected;                      //board after the expected reply
+    private int side;                               //side the ponder search moves for
+    private long start;                             //System.nanoTime() when pondering started
+    private long hits;                              //ponder hits so far
+    private long misses;                            //ponder misses so far
+    
+    //Constructor of Ponderer class
+    public Ponderer(MiniChessEngine engine)
+    {
+        this.engine = engine;
+        this.thread = Executors.newSingleThreadExecutor(new ThreadFactory()
+        {
+            //ponder thread must not keep the program alive
+            public Thread newThread(Runnable r)
+            {
+                Thread t = new Thread(r, "ponder");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+    
+    //Method starts searching the answer of a side to the opponent's expected move, stopping any
+    //earlier ponder search (does nothing if the expected move is Move.NONE)
+    public void start(BitBoard board, int side, int expectedMove, final SearchLimits limits)
+    {
+        cancel();
+        if(expectedMove == Move.NONE)
+            return;
+        
+        final BitBoard after = new BitBoard(board);
+        after.makeMove(expectedMove);
+        final int mover = side;
+        final AtomicBoolean flag = new AtomicBoolean(false);
+        final SearchLimits unlimited = new SearchLimits(limits.depth(), 0, limits.nodes());
+        
+        this.expected = new BitBoard(after);       //search threads work on their own copy of after
+        this.side = side;
+        this.stop = flag;
+        this.start = System.nanoTime();
+        this.pending = thread.submit(new Callable<SearchResult>()
+        {
+            public SearchResult call()
+            {
+                return engine.search(after, mover, unlimited, flag);
+            }
+        });
+    }
+    
+    //Method returns the move of a side on a board the opponent has just reached: the ponder result
+    //on a hit, a new search within the limits on a miss or if nothing was pondered
+    public SearchResult finish(BitBoard board, int side, SearchLimits limits)
+    {
+        if(pending == null)
+            return engine.search(board, side, limits);
+        
+        if(side != this.side || !board.equals(expected))
+        {
+            misses++;
+            cancel();                               //table keeps what the ponder search stored
+            return engine.search(board, side, limits);
+        }
+        
+        hits++;
+        Future<SearchResult> result = pending;
+        AtomicBoolean flag = stop;
+        pending = null;
+        
+        try
+        {
+            //time budget counts from when pondering started (no time limit waits for the search)
+            if(limits.timeMillis() > 0)
+            {
+                long left = start + limits.timeMillis() * 1000000L - System.nanoTime();
+                try
+                {
+                    if(left > 0)
+                        return result.get(left, TimeUnit.NANOSECONDS);
+                }
+                catch(TimeoutException e)
+                {
+                    //budget used up, stop below and take the deepest finished iteration
+                }
+                flag.set(true);
+            }
+            
+            return result.get();
+        }
+        catch(InterruptedException e)
+        {
+            flag.set(true);
+            Thread.currentThread().interrupt();
+            return engine.search(board, side, limits);
+        }
+        catch(ExecutionException e)
+        {
+            throw new IllegalStateException("Ponder search failed", e.getCause());
+        }
+    }
+    
+    //Method stops the ponder search and waits until the engine is free again
+    public void cancel()
+    {
+        if(pending == null)
+            return;
+        
+        stop.set(true);
+        try
+        {
+            pending.get();
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch(ExecutionException e)
+        {
+            throw new IllegalStateException("Ponder search failed", e.getCause());
+        }
+        finally
+        {
+            pending = null;
+        }
+    }
+    
+    //Method returns number of ponder hits
+    public long hits()
+    {
+        return hits;
+    }
+    
+    //Method returns number of ponder misses
+    public long misses()
+    {
+        return misses;
+    }
+    
+    //Method stops pondering and the ponder thread
+    public void close()
+    {
+        cancel();
+        thread.shutdownNow();
+    }
+}
@@ -0,0 +1,148 @@
+//This class is a board and side to move packed into 2 longs, one canonical value per position:
+//  squares  bit sq set if square sq holds a piece
+//  codes    piece index of each occupied square in 3 bits, lowest square first (at most 20 pieces),
+//           bits 60-62 size - 1, bit 63 side to move (1 for player)
+//The text notation is the rows from the top separated by '/', '.' for empty squares, then the side
+//to move (c computer, p player), e.g. "RKB.BR/....../....../....../....../rkb.br c"
+public final class Position
+{
+    public static final int MAX_PIECES = 20;        //pieces that fit in the codes
+    
+    private final long squares;             //occupied squares
+    private final long codes;               //piece codes, size and side to move
+    
+    //Constructor of Position class from its 2 longs (checked)
+    public Position(long squares, long codes)
+    {
+        int size = (int) ((codes >>> 60) & 7) + 1;
+        if(size < Tables.MIN_SIZE)
+            throw new IllegalArgumentException("Board size must be between " + Tables.MIN_SIZE + " and " + Tables.MAX_SIZE + ": " + size);
+        if(size < 8 && (squares >>> (size * size)) != 0)
+            throw new IllegalArgumentException("Occupied square off a board of size " + size);
+        
+        int pieces = Long.bitCount(squares);
+        if(pieces > MAX_PIECES)
+            throw new IllegalArgumentException("More than " + MAX_PIECES + " pieces: " + pieces);
+        for(int k = 0; k < pieces; k++)
+            if(((codes >>> (3 * k)) & 7) >= BitBoard.PIECES)
+                throw new IllegalArgumentException("Unknown piece code " + ((codes >>> (3 * k)) & 7));
+        if(((codes & ((1L << 60) - 1)) >>> (3 * pieces)) != 0)
+            throw new IllegalArgumentException("Piece codes past the last occupied square");
+        
+        this.squares = squares;
+        this.codes = codes;
+    }
+    
+    //Method packs a board and the side to move
+    public static Position of(BitBoard board, int side)
+    {
+        long squares = board.occupied(BitBoard.COMPUTER) | board.occupied(BitBoard.PLAYER);
+        if(Long.bitCount(squares) > MAX_PIECES)
+            throw new IllegalArgumentException("More than " + MAX_PIECES + " pieces: " + Long.bitCount(squares));
+        
+        long codes = 0L;
+        int k = 0;
+        for(long rest = squares; rest != 0; rest &= rest - 1)
+            codes |= (long) board.pieceAt(Long.numberOfTrailingZeros(rest)) << (3 * k++);
+        
+        codes |= (long) (board.size() - 1) << 60;
+        codes |= (long) side << 63;
+        
+        return new Position(squares, codes);
+    }
+    
+    //Method reads the text notation of a position
+    public static Position parse(String text)
+    {
+        String trimmed = text.trim();
+        int space = trimmed.lastIndexOf(' ');
+        String side = space < 0 ? "" : trimmed.substring(space + 1);
+        if(!side.equals("c") && !side.equals("p"))
+            throw new IllegalArgumentException("Side to move must be c or p: " + text);
+        
+        BitBoard board = BitBoard.fromRows(trimmed.substring(0, space).trim().split("/"));
+        return of(board, side.equals("c") ? BitBoard.COMPUTER : BitBoard.PLAYER);
+    }
+    
+    //Method returns occupied squares
+    public long squares()
+    {
+        return squares;
+    }
+    
+    //Method returns piece codes, size and side to move
+    public long codes()
+    {
+        return codes;
+    }
+    
+    //Method returns size of board
+    public int size()
+    {
+        return (int) ((codes >>> 60) & 7) + 1;
+    }
+    
+    //Method returns side to move
+    public int side()
+    {
+        return (int) (codes >>> 63);
+    }
+    
+    //Method unpacks the board
+    public BitBoard toBoard()
+    {
+        int size = size();
+        BitBoard board = new BitBoard(size);
+        
+        int k = 0;
+        for(long rest = squares; rest != 0; rest &= rest - 1)
+        {
+            int sq = Long.numberOfTrailingZeros(rest);
+            board.set(sq / size, sq % size, BitBoard.symbolOf((int) ((codes >>> (3 * k++)) & 7)));
+        }
+        
+        return board;
+    }
+    
+    //Method writes the rows of a board from the top, separated by '/' with '.' for empty squares
+    public static String rows(BitBoard board)
+    {
+        StringBuilder text = new StringBuilder();
+        for(int i = 0; i < board.size(); i++)
+        {
+            if(i > 0)
+                text.append('/');
+            for(int j = 0; j < board.size(); j++)
+                text.append(board.isEmpty(i, j) ? '.' : board.get(i, j));
+        }
+        
+        return text.toString();
+    }
+    
+    //Method returns true if 2 positions are identical
+    @Override
+    public boolean equals(Object o)
+    {
+        if(this == o)
+            return true;
+        if(!(o instanceof Position))
+            return false;
+        
+        Position other = (Position) o;
+        return squares == other.squares && codes == other.codes;
+    }
+    
+    @Override
+    public int hashCode()
+    {
+        long h = squares * 0x9E3779B97F4A7C15L ^ codes;
+        return (int) (h ^ (h >>> 32));
+    }
+    
+    //Method writes the text notation
+    @Override
+    public String toString()
+    {
+        return rows(toBoard()) + (side() == BitBoard.COMPUTER ? " c" : " p");
+    }
+}
@@ -0,0 +1,97 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+//This class reads positions one at a time from a stream, which is either binary (starting with
+//PositionWriter.MAGIC) or text with one position per line in the notation of Position
+//(blank lines and lines starting with '#' are skipped)
+public class PositionReader implements Closeable
+{
+    private final DataInputStream binary;   //binary input (null for text)
+    private final BufferedReader text;      //text input (null for binary)
+    private long line;                      //lines read from text input
+    
+    //Constructor looks at the start of a stream to tell binary from text
+    public PositionReader(InputStream in) throws IOException
+    {
+        BufferedInputStream buffered = new BufferedInputStream(in, 1 << 16);
+        
+        buffered.mark(4);
+        int magic = 0;
+        int read = 0;
+        for(int b; read < 4 && (b = buffered.read()) >= 0; read++)
+            magic = (magic << 8) | b;
+        
+        if(read == 4 && magic == PositionWriter.MAGIC)
+        {
+            this.binary = new DataInputStream(buffered);
+            this.text = null;
+        }
+        else
+        {
+            buffered.reset();
+            this.binary = null;
+            this.text = new BufferedReader(new InputStreamReader(buffered, "US-ASCII"));
+        }
+    }
+    
+    //Method returns true if stream is binary
+    public boolean isBinary()
+    {
+        return binary != null;
+    }
+    
+    //Method returns next position (null at the end of the stream)
+    //A text line that is not a position throws IllegalArgumentException; reading may go on after it
+    public Position next() throws IOException
+    {
+        if(binary != null)
+        {
+            long squares;
+            try
+            {
+                squares = binary.readLong();
+            }
+            catch(EOFException e)
+            {
+                return null;
+            }
+            
+            return new Position(squares, binary.readLong());
+        }
+        
+        String s;
+        while((s = text.readLine()) != null)
+        {
+            line++;
+            s = s.trim();
+            if(s.isEmpty() || s.startsWith("#"))
+                continue;
+            
+            try
+            {
+                return Position.parse(s);
+            }
+            catch(IllegalArgumentException e)
+            {
+                throw new IllegalArgumentException("Line " + line + ": " + e.getMessage(), e);
+            }
+        }
+        
+        return null;
+    }
+    
+    //Method closes the stream
+    public void close() throws IOException
+    {
+        if(binary != null)
+            binary.close();
+        else
+            text.close();
+    }
+}
@@ -0,0 +1,91 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+//This class writes positions to a binary stream: the 4 bytes of MAGIC, then 16 bytes per position
+//(occupied squares, then piece codes, both big endian)
+public class PositionWriter implements Closeable
+{
+    public static final int MAGIC = 0x4D435031;     //"MCP1", marks a binary file of positions
+    
+    private final DataOutputStream out;     //buffered output
+    private long count;                     //positions written
+    
+    //Constructor writes the header to a stream
+    public PositionWriter(OutputStream out) throws IOException
+    {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+        this.out.writeInt(MAGIC);
+    }
+    
+    //Method writes one position
+    public void write(Position position) throws IOException
+    {
+        out.writeLong(position.squares());
+        out.writeLong(position.codes());
+        count++;
+    }
+    
+    //Method returns positions written
+    public long count()
+    {
+        return count;
+    }
+    
+    //Method writes out buffered positions
+    public void flush() throws IOException
+    {
+        out.flush();
+    }
+    
+    //Method writes out buffered positions and closes the stream
+    public void close() throws IOException
+    {
+        out.close();
+    }
+    
+    //Program converts a file of positions (text or binary) to binary
+    public static void main(String[] args) throws IOException
+    {
+        if(args.length < 2)
+        {
+            System.out.println("Usage: PositionWriter <positions file> <binary output file>");
+            return;
+        }
+        
+        PositionReader in = new PositionReader(new BufferedInputStream(new FileInputStream(args[0])));
+        PositionWriter out = new PositionWriter(new FileOutputStream(args[1]));
+        try
+        {
+            while(true)
+            {
+                Position position;
+                try
+                {
+                    position = in.next();
+                }
+                catch(IllegalArgumentException e)   //skip lines that are not positions
+                {
+                    System.err.println(e.getMessage());
+                    continue;
+                }
+                
+                if(position == null)
+                    break;
+                out.write(position);
+            }
+        }
+        finally
+        {
+            in.close();
+            out.close();
+        }
+        
+        System.out.println(out.count() + " positions written to " + args[1]);
+    }
+}
@@ -0,0 +1,970 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//This class runs the alpha beta search on one board, applying and taking back moves in place
+public class Search
+{
+    //search algorithms, selectable to compare node counts
+    public enum Algorithm
+    {
+        MINMAX,                                     //separate max and min levels, full window at every node
+        PVS                                         //negamax principal variation search with null window scouts
+    }
+    
+    private static final int MIN = 0;               //min level
+    private static final int MAX = 1;               //max level
+    public static final int WIN = 999999;           //score of a captured king
+    
+    private static final int TABLE_ENTRIES = 1 << 20;  //default transposition table size
+    
+    private static final int CHECK_NODES = 1023;    //check the clock and node limit every 1024 boards
+    private static final int ASPIRATION = 3;        //half width of window around last score
+    private static final int QUIESCENCE_PLIES = 16; //plies past the horizon kept for captures
+    private static final int CHECK_EXTENSIONS = 2;  //plies past the horizon where a king under attack tries every move
+    private static final int DELTA = 3;             //most a move can add to a capture by changing squares
+    private static final int INFINITY = WIN + 1;    //bound of PVS windows, safe to negate
+    private static final int DISTANCE = 1000;       //tablebase wins and losses lie this close below WIN
+    
+    //move ordering scores, highest tried first
+    private static final int TABLE_MOVE = 1 << 30;  //best move stored in the table
+    private static final int CAPTURE = 1 << 28;     //captures, plus most valuable victim, least valuable attacker
+    private static final int KILLER = 1 << 27;      //quiet moves that caused a cutoff at the same ply
+    private static final int HISTORY_MAX = 1 << 26; //history scores stay below killers
+    private static final int[] VALUE = { 3, 2, 1 }; //capture value of king, rook, bishop
+    
+    private final int limit;                //deepest iteration
+    private final MoveGenerator generator;  //move generator
+    private final TranspositionTable table; //results of boards already searched
+    private final int[][] moves;            //move buffer per ply
+    private final int[][] order;            //ordering score of each move per ply
+    private final int[][] killers;          //two killer moves per ply
+    private final int[] history;            //cutoff history per piece index and to square
+    private final SearchStats stats;        //counts of the last search
+    
+    private BitBoard board;                 //board being searched
+    private int depthLimit;                 //depth of current iteration
+    private long deadline;                  //System.nanoTime() at which search stops
+    private long nodeLimit;                 //boards after which search stops (checked with the clock)
+    private boolean stopped;                //true once the deadline has passed or search was stopped
+    private AtomicBoolean stop;             //set by another thread to stop search (may be null)
+    private Tablebase tablebase;            //solved endgames (may be null)
+    private boolean quiescence = true;      //search captures past the horizon
+    private Algorithm algorithm = Algorithm.PVS;    //search algorithm
+    private final int[] pieceSquare;        //score per piece index and square, for delta pruning
+    private long nodes;                     //boards visited by last search
+    private int completedDepth;             //deepest finished iteration of last search
+    private int score;                      //score of best move of last search
+    private int rootMove;                   //best move found by last root search
+    
+    //Constructor of Search class
+    public Search(int size, int limit)
+    {
+        this(size, limit, new TranspositionTable(TABLE_ENTRIES, TranspositionTable.Replacement.DEPTH_PREFERRED));
+    }
+    
+    //Constructor of Search class with a given transposition table
+    public Search(int size, int limit, TranspositionTable table)
+    {
+        this(Variant.forSize(size), limit, table);
+    }
+    
+    //Constructor of Search class for a variant with a given transposition table
+    public Search(Variant variant, int limit, TranspositionTable table)
+    {
+        int size = variant.size();
+        this.limit = limit;
+        this.generator = new MoveGenerator(variant);
+        this.table = table;
+        this.moves = new int[limit + 1 + QUIESCENCE_PLIES][MoveGenerator.MAX_MOVES];
+        this.order = new int[limit + 1 + QUIESCENCE_PLIES][MoveGenerator.MAX_MOVES];
+        this.killers = new int[limit + 1][2];
+        this.history = new int[BitBoard.PIECES * 64];
+        this.pieceSquare = Tables.forSize(size).pieceSquare();
+        this.stats = new SearchStats(limit);
+    }
+    
+    //Method sets solved endgames to look up instead of searching (null for none)
+    public void setTablebase(Tablebase tablebase)
+    {
+        this.tablebase = tablebase;
+    }
+    
+    //Method selects the search algorithm
+    public void setAlgorithm(Algorithm algorithm)
+    {
+        this.algorithm = algorithm;
+    }
+    
+    //Method turns the capture search past the horizon on or off
+    public void setQuiescence(boolean quiescence)
+    {
+        this.quiescence = quiescence;
+    }
+    
+    //Method returns number of boards visited by last search
+    public long nodes()
+    {
+        return nodes;
+    }
+    
+    //Method returns counts of last search (empty if counting is turned off)
+    public SearchStats stats()
+    {
+        return stats;
+    }
+    
+    //Method returns deepest finished iteration of last search
+    public int completedDepth()
+    {
+        return completedDepth;
+    }
+    
+    //Method returns score of best move of last search
+    public int score()
+    {
+        return score;
+    }
+    
+    //Method finds best computer move of a board searching to the depth limit
+    public int bestMove(BitBoard board)
+    {
+        return bestMove(board, 0);
+    }
+    
+    //Method finds best computer move of a board within a time budget (0 for no budget)
+    public int bestMove(BitBoard board, long timeMillis)
+    {
+        return bestMove(board, timeMillis, null, 1);
+    }
+    
+    //Method finds best computer move, also stopping when flag is set, starting at a given depth
+    public int bestMove(BitBoard board, long timeMillis, AtomicBoolean stop, int firstDepth)
+    {
+        return bestMove(board, BitBoard.COMPUTER, SearchLimits.time(timeMillis), stop, firstDepth);
+    }
+    
+    //Method finds best move of a side within search limits, also stopping when flag is set (may be null)
+    public int bestMove(BitBoard board, int side, SearchLimits limits, AtomicBoolean stop, int firstDepth)
+    {
+        this.board = board;
+        this.nodes = 0;
+        this.stop = stop;
+        this.stopped = false;
+        this.completedDepth = 0;
+        if(SearchStats.ENABLED)
+            stats.reset();
+        this.deadline = limits.timeMillis() > 0 ? System.nanoTime() + limits.timeMillis() * 1000000L : Long.MAX_VALUE;
+        this.nodeLimit = limits.nodes() > 0 ? limits.nodes() : Long.MAX_VALUE;
+        int maxDepth = limits.depth() > 0 ? Math.min(limits.depth(), limit) : limit;
+        
+        int[] list = moves[0];
+        int count = generator.generate(board, side, list);
+        
+        //start with captures first and let older history count for less
+        for(int i = 0; i < history.length; i++)
+            history[i] >>= 1;
+        for(int i = 0; i <= limit; i++)
+            killers[i][0] = killers[i][1] = Move.NONE;
+        
+        scoreMoves(list, order[0], count, 0, Move.NONE);
+        for(int i = 0; i < count; i++)
+            nextMove(list, order[0], count, i);
+        
+        int bestMove = count > 0 ? list[0] : Move.NONE;     //fallback if no iteration finishes
+        this.score = 0;
+        
+        //every move leads to a solved endgame, pick the best of them without searching
+        if(count > 0 && tablebase != null && Long.bitCount(board.occupied(BitBoard.COMPUTER) | board.occupied(BitBoard.PLAYER)) <= tablebase.maxPieces())
+        {
+            int move = tablebaseMove(list, count, side);
+            if(move != Move.NONE)
+            {
+                completedDepth = 1;
+                return move;
+            }
+        }
+        
+        //search one ply deeper each time until the depth limit or the deadline
+        for(int d = Math.min(firstDepth, maxDepth); d <= maxDepth && count > 0; d++)
+        {
+            depthLimit = d;
+            long iterationStart = System.nanoTime();
+            long nodesBefore = nodes;
+            FlightEvents.IterationEvent event = FlightEvents.iteration();
+            if(event != null)
+                event.begin();
+            
+            //after the first iteration expect a score close to the last one
+            int alpha = Integer.MIN_VALUE;
+            int beta = Integer.MAX_VALUE;
+            if(completedDepth > 0)
+            {
+                alpha = score - ASPIRATION;
+                beta = score + ASPIRATION;
+            }
+            
+            int rootValue;
+            while(true)
+            {
+                rootValue = algorithm == Algorithm.PVS ? searchRootPvs(list, count, side, alpha, beta)
+                    : searchRoot(list, count, side, alpha, beta);
+                
+                if(stopped)
+                    break;
+                
+                if(rootValue <= alpha && alpha != Integer.MIN_VALUE)     //failed low, open lower side
+                    alpha = Integer.MIN_VALUE;
+                else if(rootValue >= beta && beta != Integer.MAX_VALUE)  //failed high, open upper side
+                    beta = Integer.MAX_VALUE;
+                else
+                    break;
+            }
+            
+            if(SearchStats.ENABLED)
+                stats.iteration(d, nodes - nodesBefore, System.nanoTime() - iterationStart);
+            if(event != null)
+                event.end(d, nodes - nodesBefore, stopped ? 0 : rootValue, !stopped);
+            
+            if(stopped)                 //keep result of last finished iteration
+                break;
+            
+            bestMove = rootMove;
+            score = rootValue;
+            completedDepth = d;
+            
+            //search best move first in next iteration
+            for(int i = 0; i < count; i++)
+            {
+                if(list[i] == bestMove)
+                {
+                    list[i] = list[0];
+                    list[0] = bestMove;
+                    break;
+                }
+            }
+            
+            if(score == WIN || score == -WIN)   //result is forced, deeper search cannot change it
+                break;
+        }
+        
+        return bestMove;
+    }
+    
+    //Method searches root moves in a window, narrowing it for the side to move as better moves are found
+    private int searchRoot(int[] list, int count, int side, int alpha, int beta)
+    {
+        rootMove = Move.NONE;
+        boolean max = side == BitBoard.COMPUTER;
+        int bestValue = max ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        
+        for(int i = 0; i < count; i++)  //find move with best minmax value for the side to move
+        {
+            board.makeMove(list[i]);
+            int currentValue = minmax(max ? MIN : MAX, 1, alpha, beta);
+            board.unmakeMove(list[i]);
+            
+            if(stopped)
+                break;
+            
+            if(rootMove == Move.NONE || (max ? currentValue > bestValue : currentValue < bestValue))
+            {
+                rootMove = list[i];
+                bestValue = currentValue;
+            }
+            
+            if(max)
+            {
+                if(bestValue >= beta)       //better than window allows, caller widens it
+                    break;
+                if(bestValue > alpha)       //later moves only need to beat this one
+                    alpha = bestValue;
+            }
+            else
+            {
+                if(bestValue <= alpha)      //better for player than window allows, caller widens it
+                    break;
+                if(bestValue < beta)
+                    beta = bestValue;
+            }
+        }
+        
+        return bestValue;
+    }
+    
+    //Method searches root moves with PVS: the first move with the whole window, the rest with a null
+    //window that only proves they are not better, searching again if one turns out better
+    private int searchRootPvs(int[] list, int count, int side, int alpha, int beta)
+    {
+        int sign = side == BitBoard.COMPUTER ? 1 : -1;
+        
+        //window of the side to move
+        int low = Math.max(sign > 0 ? alpha : negate(beta), -INFINITY);
+        int high = Math.min(sign > 0 ? beta : negate(alpha), INFINITY);
+        
+        rootMove = Move.NONE;
+        int best = -INFINITY;
+        
+        for(int i = 0; i < count; i++)
+        {
+            board.makeMove(list[i]);
+            int value;
+            if(i == 0)
+            {
+                value = -pvs(1 - side, 1, -high, -low);
+            }
+            else
+            {
+                value = -pvs(1 - side, 1, -low - 1, -low);
+                if(value > low && value < high && !stopped)
+                    value = -pvs(1 - side, 1, -high, -low);
+            }
+            board.unmakeMove(list[i]);
+            
+            if(stopped)
+                break;
+            
+            if(rootMove == Move.NONE || value > best)
+            {
+                rootMove = list[i];
+                best = value;
+            }
+            
+            if(best >= high)            //better than window allows, caller widens it
+                break;
+            if(best > low)
+                low = best;
+        }
+        
+        return sign * best;
+    }
+    
+    //Method negates a bound, keeping the largest and smallest int apart from real scores
+    private static int negate(int bound)
+    {
+        return bound == Integer.MIN_VALUE ? Integer.MAX_VALUE : bound == Integer.MAX_VALUE ? Integer.MIN_VALUE : -bound;
+    }
+    
+    //Method picks the move with the best tablebase result (Move.NONE if a board after a move is not in the tables)
+    private int tablebaseMove(int[] list, int count, int side)
+    {
+        int bestMove = Move.NONE;
+        int bestValue = 0;
+        
+        for(int i = 0; i < count; i++)
+        {
+            int value;
+            if(Move.isCapture(list[i]) && Move.captured(list[i]) % 3 == 0)     //king taken
+            {
+                value = side == BitBoard.COMPUTER ? WIN : -WIN;
+            }
+            else
+            {
+                board.makeMove(list[i]);
+                int result = tablebase.probe(board, 1 - side);
+                board.unmakeMove(list[i]);
+                
+                if(result == Tablebase.NONE)
+                    return Move.NONE;
+                value = tablebaseScore(result, 1 - side, 1);
+            }
+            
+            if(bestMove == Move.NONE || (side == BitBoard.COMPUTER ? value > bestValue : value < bestValue))
+            {
+                bestMove = list[i];
+                bestValue = value;
+            }
+        }
+        
+        score = bestValue;
+        return bestMove;
+    }
+    
+    //Method turns a tablebase result into a score: below a king taken in the search, quicker wins and slower losses first
+    private static int tablebaseScore(int result, int side, int depth)
+    {
+        if(result == 0)
+            return 0;
+        
+        int score = WIN - depth - result;
+        if(Tablebase.isLoss(result))
+            score = -score;
+        
+        return side == BitBoard.COMPUTER ? score : -score;
+    }
+    
+    //Method turns a score found at a ply into the one stored in the table: tablebase scores count
+    //plies from the root, so they are stored counted from the board itself and reused at any ply
+    private static int toTable(int score, int depth)
+    {
+        if(score > WIN - DISTANCE && score < WIN)
+            return score + depth;
+        if(score < -WIN + DISTANCE && score > -WIN)
+            return score - depth;
+        
+        return score;
+    }
+    
+    //Method turns a score stored in the table back into one counted from the root at a ply
+    private static int fromTable(int score, int depth)
+    {
+        if(score > WIN - DISTANCE && score < WIN)
+            return score - depth;
+        if(score < -WIN + DISTANCE && score > -WIN)
+            return score + depth;
+        
+        return score;
+    }
+    
+    //Method follows best moves stored in the table from a board, up to a number of plies
+    public int[] principalVariation(BitBoard board, int side, int firstMove, int plies)
+    {
+        int[] line = new int[Math.max(plies, 0)];
+        int length = 0;
+        int[] list = new int[MoveGenerator.MAX_MOVES];
+        int move = firstMove;
+        
+        while(move != Move.NONE && length < line.length)
+        {
+            line[length++] = move;
+            board.makeMove(move);
+            side = 1 - side;
+            
+            if(!board.hasKing('K') || !board.hasKing('k'))
+                break;
+            
+            //stored move may belong to another board with the same index, so check it is legal here
+            long entry = table.probe(board.key() ^ Zobrist.side(side));
+            int next = entry != 0 ? TranspositionTable.move(entry) : Move.NONE;
+            move = Move.NONE;
+            int count = generator.generate(board, side, list);
+            for(int i = 0; i < count; i++)
+                if(list[i] == next)
+                    move = next;
+        }
+        
+        for(int i = length - 1; i >= 0; i--)    //put board back as it was
+            board.unmakeMove(line[i]);
+        
+        return Arrays.copyOf(line, length);
+    }
+    
+    //Method computes minmax value of board
+    private int minmax(int level, int depth, int alpha, int beta)
+    {
+        nodes++;
+        
+        if((nodes & CHECK_NODES) == 0 && (System.nanoTime() > deadline || nodes >= nodeLimit || (stop != null && stop.get())))
+            stopped = true;
+        
+        if(stopped)                                 //out of time, result is thrown away
+        {
+            return 0;
+        }
+        else if(!board.hasKing('K'))                     //Player wins
+        {
+            return -WIN;
+        }
+        else if(!board.hasKing('k'))                //Computer wins
+        {
+            return WIN;
+        }
+        
+        int side = level == MAX ? BitBoard.COMPUTER : BitBoard.PLAYER;
+        
+        //few pieces left, the result is known without searching
+        if(tablebase != null && Long.bitCount(board.occupied(BitBoard.COMPUTER) | board.occupied(BitBoard.PLAYER)) <= tablebase.maxPieces())
+        {
+            int result = tablebase.probe(board, side);
+            if(result != Tablebase.NONE)
+                return tablebaseScore(result, side, depth);
+        }
+        
+        if(depth >= depthLimit)
+        {
+            //evaluate board at leaf, once captures have settled
+            return quiescence ? quiesce(level, depth, alpha, beta, 0) : evaluate(board);
+        }
+        
+        long key = board.key() ^ Zobrist.side(side);
+        int remaining = depthLimit - depth;
+        
+        //use stored result if it was searched at least as deep
+        long entry = table.probe(key);
+        if(SearchStats.ENABLED)
+            stats.probe(entry != 0);
+        int tableMove = entry != 0 ? TranspositionTable.move(entry) : Move.NONE;
+        if(entry != 0 && TranspositionTable.depth(entry) >= remaining)
+        {
+            int score = fromTable(TranspositionTable.score(entry), depth);
+            int bound = TranspositionTable.bound(entry);
+            
+            if(bound == TranspositionTable.EXACT)
+                return score;
+            if(bound == TranspositionTable.LOWER && score > alpha)
+                alpha = score;
+            if(bound == TranspositionTable.UPPER && score < beta)
+                beta = score;
+            if(alpha >= beta)
+                return score;
+        }
+        
+        int[] list = moves[depth];
+        int count = generator.generate(board, side, list);
+        
+        if(count == 0)              //side to move is stuck, game is drawn
+            return 0;
+        
+        int[] scores = order[depth];
+        scoreMoves(list, scores, count, depth, tableMove);
+        
+        int alphaStart = alpha;     //window before searching children
+        int betaStart = beta;
+        int value;
+        int bestMove = Move.NONE;
+        
+        if(level == MAX)            //if board is at max level
+        {
+            int maxValue = Integer.MIN_VALUE;
+            
+            for(int i = 0; i < count; i++)
+            {
+                nextMove(list, scores, count, i);   //bring best ordered move to i
+                
+                //find maximum of minmax values of children
+                board.makeMove(list[i]);
+                int currentValue = minmax(MIN, depth+1, alpha, beta);
+                board.unmakeMove(list[i]);
+                
+                if(currentValue > maxValue)
+                {
+                    maxValue = currentValue;
+                    bestMove = list[i];
+                }
+                
+                if(maxValue >= beta)    //if maximum exceeds beta stop
+                {
+                    rememberCutoff(list[i], depth, remaining);
+                    if(SearchStats.ENABLED)
+                        stats.cutoff(i == 0);
+                    break;
+                }
+                
+                if(maxValue > alpha)    //if maximum exceeds alpha update alpha
+                    alpha = maxValue;
+            }
+            
+            value = maxValue;           //maximum value
+        }
+        else                        //if board is at min level
+        {
+            int minValue = Integer.MAX_VALUE;
+            
+            for(int i = 0; i < count; i++)
+            {
+                nextMove(list, scores, count, i);   //bring best ordered move to i
+                
+                //find minimum of minmax values of children
+                board.makeMove(list[i]);
+                int currentValue = minmax(MAX, depth+1, alpha, beta);
+                board.unmakeMove(list[i]);
+                
+                if(currentValue < minValue)
+                {
+                    minValue = currentValue;
+                    bestMove = list[i];
+                }
+                
+                if(minValue <= alpha)   //if minimum is less than alpha stop
+                {
+                    rememberCutoff(list[i], depth, remaining);
+                    if(SearchStats.ENABLED)
+                        stats.cutoff(i == 0);
+                    break;
+                }
+                
+                if(minValue < beta)     //if minimum is less than beta update beta
+                    beta = minValue;
+            }
+            
+            value = minValue;           //minimum value
+        }
+        
+        if(stopped)                 //do not store result of an unfinished search
+            return value;
+        
+        //remember result with the kind of bound the window gave it
+        int bound = TranspositionTable.EXACT;
+        if(value <= alphaStart)
+            bound = TranspositionTable.UPPER;
+        else if(value >= betaStart)
+            bound = TranspositionTable.LOWER;
+        
+        table.store(key, remaining, bound, toTable(value, depth), bestMove);
+        
+        return value;
+    }
+    
+    //Method computes negamax value of board for the side to move: the first move gets the whole
+    //window, later moves a null window, and only a move that beats alpha is searched again
+    private int pvs(int side, int depth, int alpha, int beta)
+    {
+        nodes++;
+        
+        if((nodes & CHECK_NODES) == 0 && (System.nanoTime() > deadline || nodes >= nodeLimit || (stop != null && stop.get())))
+            stopped = true;
+        
+        if(stopped)                                 //out of time, result is thrown away
+            return 0;
+        
+        int sign = side == BitBoard.COMPUTER ? 1 : -1;
+        if(!board.hasKing(side == BitBoard.COMPUTER ? 'K' : 'k'))  //king of side to move was taken
+            return -WIN;
+        if(!board.hasKing(side == BitBoard.COMPUTER ? 'k' : 'K'))
+            return WIN;
+        
+        //few pieces left, the result is known without searching
+        if(tablebase != null && Long.bitCount(board.occupied(BitBoard.COMPUTER) | board.occupied(BitBoard.PLAYER)) <= tablebase.maxPieces())
+        {
+            int result = tablebase.probe(board, side);
+            if(result != Tablebase.NONE)
+                return sign * tablebaseScore(result, side, depth);
+        }
+        
+        if(depth >= depthLimit)
+            return quiescence ? qsearch(side, depth, alpha, beta, 0) : sign * evaluate(board);
+        
+        long key = board.key() ^ Zobrist.side(side);
+        int remaining = depthLimit - depth;
+        
+        //use stored result if it was searched at least as deep (table holds computer scores)
+        long entry = table.probe(key);
+        if(SearchStats.ENABLED)
+            stats.probe(entry != 0);
+        int tableMove = entry != 0 ? TranspositionTable.move(entry) : Move.NONE;
+        if(entry != 0 && TranspositionTable.depth(entry) >= remaining)
+        {
+            int score = sign * fromTable(TranspositionTable.score(entry), depth);
+            int bound = sign > 0 ? TranspositionTable.bound(entry) : flip(TranspositionTable.bound(entry));
+            
+            if(bound == TranspositionTable.EXACT)
+                return score;
+            if(bound == TranspositionTable.LOWER && score > alpha)
+                alpha = score;
+            if(bound == TranspositionTable.UPPER && score < beta)
+                beta = score;
+            if(alpha >= beta)
+                return score;
+        }
+        
+        int[] list = moves[depth];
+        int count = generator.generate(board, side, list);
+        
+        if(count == 0)              //side to move is stuck, game is drawn
+            return 0;
+        
+        int[] scores = order[depth];
+        scoreMoves(list, scores, count, depth, tableMove);
+        
+        int alphaStart = alpha;
+        int best = -INFINITY;
+        int bestMove = Move.NONE;
+        
+        for(int i = 0; i < count; i++)
+        {
+            nextMove(list, scores, count, i);   //bring best ordered move to i
+            
+            board.makeMove(list[i]);
+            int value;
+            if(i == 0)
+            {
+                value = -pvs(1 - side, depth + 1, -beta, -alpha);
+            }
+            else
+            {
+                value = -pvs(1 - side, depth + 1, -alpha - 1, -alpha);
+                if(value > alpha && value < beta)   //scout failed high, find the real value
+                    value = -pvs(1 - side, depth + 1, -beta, -alpha);
+            }
+            board.unmakeMove(list[i]);
+            
+            if(value > best)
+            {
+                best = value;
+                bestMove = list[i];
+            }
+            
+            if(best > alpha)
+                alpha = best;
+            
+            if(alpha >= beta)
+            {
+                rememberCutoff(list[i], depth, remaining);
+                if(SearchStats.ENABLED)
+                    stats.cutoff(i == 0);
+                break;
+            }
+        }
+        
+        if(stopped)                 //do not store result of an unfinished search
+            return best;
+        
+        int bound = TranspositionTable.EXACT;
+        if(best <= alphaStart)
+            bound = TranspositionTable.UPPER;
+        else if(best >= beta)
+            bound = TranspositionTable.LOWER;
+        
+        table.store(key, remaining, sign > 0 ? bound : flip(bound), toTable(sign * best, depth), bestMove);
+        
+        return best;
+    }
+    
+    //Method swaps lower and upper bounds, for a score seen from the other side
+    private static int flip(int bound)
+    {
+        return bound == TranspositionTable.LOWER ? TranspositionTable.UPPER : bound == TranspositionTable.UPPER ? TranspositionTable.LOWER : bound;
+    }
+    
+    //Method is quiesce in negamax form for PVS: scores are for the side to move
+    private int qsearch(int side, int depth, int alpha, int beta, int checks)
+    {
+        int standPat = side == BitBoard.COMPUTER ? evaluate(board) : -evaluate(board);
+        
+        if(depth >= depthLimit + QUIESCENCE_PLIES - 1)
+            return standPat;
+        
+        boolean evade = checks < CHECK_EXTENSIONS && kingAttacked(side);
+        int[] list = moves[depth];
+        int count = evade ? generator.generate(board, side, list) : generator.generateCaptures(board, side, list);
+        
+        if(evade && count == 0)     //side to move is stuck, game is drawn
+            return 0;
+        
+        int best = evade ? -INFINITY : standPat;
+        if(!evade)                  //side to move may keep the board as it is
+        {
+            if(standPat >= beta)
+                return standPat;
+            if(standPat > alpha)
+                alpha = standPat;
+        }
+        
+        //most valuable victim first, least valuable attacker first
+        int[] scores = order[depth];
+        for(int i = 0; i < count; i++)
+            scores[i] = Move.isCapture(list[i]) ? CAPTURE + VALUE[Move.captured(list[i]) % 3] * 4 - VALUE[Move.piece(list[i]) % 3] : 0;
+        
+        for(int i = 0; i < count; i++)
+        {
+            nextMove(list, scores, count, i);
+            int move = list[i];
+            
+            //delta pruning: even winning the piece cannot bring the score back into the window
+            if(!evade && Move.captured(move) % 3 != 0
+                && standPat + Math.abs(pieceSquare[Move.captured(move) * 64 + Move.to(move)]) + DELTA <= alpha)
+                continue;
+            
+            nodes++;
+            if((nodes & CHECK_NODES) == 0 && (System.nanoTime() > deadline || nodes >= nodeLimit || (stop != null && stop.get())))
+                stopped = true;
+            if(stopped)
+                return 0;
+            
+            board.makeMove(move);
+            int value = Move.captured(move) % 3 == 0 && Move.isCapture(move) ? WIN
+                : -qsearch(1 - side, depth + 1, -beta, -alpha, evade ? checks + 1 : checks);
+            board.unmakeMove(move);
+            
+            if(value > best)
+                best = value;
+            if(best >= beta)
+                return best;
+            if(best > alpha)
+                alpha = best;
+        }
+        
+        return best;
+    }
+    
+    //Method searches captures past the horizon until the board is quiet, so the horizon never falls
+    //in the middle of an exchange: the side to move may stand pat on the evaluation or capture, and a
+    //side whose king is attacked tries every move for the first plies
+    private int quiesce(int level, int depth, int alpha, int beta, int checks)
+    {
+        int side = level == MAX ? BitBoard.COMPUTER : BitBoard.PLAYER;
+        int standPat = evaluate(board);
+        
+        if(depth >= depthLimit + QUIESCENCE_PLIES - 1)
+            return standPat;
+        
+        boolean evade = checks < CHECK_EXTENSIONS && kingAttacked(side);
+        int[] list = moves[depth];
+        int count = evade ? generator.generate(board, side, list) : generator.generateCaptures(board, side, list);
+        
+        if(evade && count == 0)     //side to move is stuck, game is drawn
+            return 0;
+        
+        int best = evade ? (level == MAX ? Integer.MIN_VALUE : Integer.MAX_VALUE) : standPat;
+        if(!evade)                  //side to move may keep the board as it is
+        {
+            if(level == MAX ? standPat >= beta : standPat <= alpha)
+                return standPat;
+            if(level == MAX && standPat > alpha)
+                alpha = standPat;
+            if(level == MIN && standPat < beta)
+                beta = standPat;
+        }
+        
+        //most valuable victim first, least valuable attacker first
+        int[] scores = order[depth];
+        for(int i = 0; i < count; i++)
+            scores[i] = Move.isCapture(list[i]) ? CAPTURE + VALUE[Move.captured(list[i]) % 3] * 4 - VALUE[Move.piece(list[i]) % 3] : 0;
+        
+        for(int i = 0; i < count; i++)
+        {
+            nextMove(list, scores, count, i);
+            int move = list[i];
+            
+            //delta pruning: even winning the piece cannot bring the score back into the window
+            if(!evade && Move.captured(move) % 3 != 0)
+            {
+                int gain = Math.abs(pieceSquare[Move.captured(move) * 64 + Move.to(move)]) + DELTA;
+                if(level == MAX ? standPat + gain <= alpha : standPat - gain >= beta)
+                    continue;
+            }
+            
+            nodes++;
+            if((nodes & CHECK_NODES) == 0 && (System.nanoTime() > deadline || nodes >= nodeLimit || (stop != null && stop.get())))
+                stopped = true;
+            if(stopped)
+                return 0;
+            
+            board.makeMove(move);
+            int value;
+            if(!board.hasKing('K'))
+                value = -WIN;
+            else if(!board.hasKing('k'))
+                value = WIN;
+            else
+                value = quiesce(level == MAX ? MIN : MAX, depth + 1, alpha, beta, evade ? checks + 1 : checks);
+            board.unmakeMove(move);
+            
+            if(level == MAX)
+            {
+                if(value > best)
+                    best = value;
+                if(best >= beta)
+                    return best;
+                if(best > alpha)
+                    alpha = best;
+            }
+            else
+            {
+                if(value < best)
+                    best = value;
+                if(best <= alpha)
+                    return best;
+                if(best < beta)
+                    beta = best;
+            }
+        }
+        
+        return best;
+    }
+    
+    //Method returns true if an enemy piece could take the king of a side on the next move
+    private boolean kingAttacked(int side)
+    {
+        int king = side == BitBoard.COMPUTER ? BitBoard.COMP_KING : BitBoard.PLAYER_KING;
+        int enemy = side == BitBoard.COMPUTER ? BitBoard.PLAYER_KING : BitBoard.COMP_KING;
+        long bits = board.pieces(king);
+        if(bits == 0)
+            return false;
+        
+        //Variant makes steps symmetric, so the king is attacked by pieces it could reach with their steps
+        int sq = Long.numberOfTrailingZeros(bits);
+        for(int kind = 0; kind < 3; kind++)
+            if((generator.targets(kind, sq) & board.pieces(enemy + kind)) != 0)
+                return true;
+        
+        return false;
+    }
+    
+    //Method forgets killers and history learnt in earlier searches, so move order (and with it the
+    //move picked among equal scores) depends only on the board searched
+    public void clearHistory()
+    {
+        for(int i = 0; i < history.length; i++)
+            history[i] = 0;
+        for(int i = 0; i <= limit; i++)
+            killers[i][0] = killers[i][1] = Move.NONE;
+    }
+    
+    //Method gives every move an ordering score: table move, captures, killers, then history
+    private void scoreMoves(int[] list, int[] scores, int count, int depth, int tableMove)
+    {
+        int[] killer = killers[depth];
+        
+        for(int i = 0; i < count; i++)
+        {
+            int move = list[i];
+            
+            if(move == tableMove)
+                scores[i] = TABLE_MOVE;
+            else if(Move.isCapture(move))
+                scores[i] = CAPTURE + VALUE[Move.captured(move) % 3] * 4 - VALUE[Move.piece(move) % 3];
+            else if(move == killer[0])
+                scores[i] = KILLER + 1;
+            else if(move == killer[1])
+                scores[i] = KILLER;
+            else
+                scores[i] = history[Move.piece(move) * 64 + Move.to(move)];
+        }
+    }
+    
+    //Method swaps highest scored move from i onwards into place i
+    private void nextMove(int[] list, int[] scores, int count, int i)
+    {
+        int best = i;
+        for(int k = i + 1; k < count; k++)
+            if(scores[k] > scores[best])
+                best = k;
+        
+        if(best != i)
+        {
+            int move = list[i]; list[i] = list[best]; list[best] = move;
+            int score = scores[i]; scores[i] = scores[best]; scores[best] = score;
+        }
+    }
+    
+    //Method records a quiet move that caused a cutoff as killer and in history
+    private void rememberCutoff(int move, int depth, int remaining)
+    {
+        if(Move.isCapture(move))    //captures are ordered first anyway
+            return;
+        
+        int[] killer = killers[depth];
+        if(killer[0] != move)
+        {
+            killer[1] = killer[0];
+            killer[0] = move;
+        }
+        
+        int index = Move.piece(move) * 64 + Move.to(move);
+        history[index] += remaining * remaining;
+        if(history[index] >= HISTORY_MAX)   //keep history below killers
+            for(int i = 0; i < history.length; i++)
+                history[i] >>= 1;
+    }
+    
+    //Method evaluates a board (piece scores are kept up to date by the board itself)
+    public static int evaluate(BitBoard board)
+    {
+        if(!board.hasKing('k'))
+            return WIN;                  //score if computer high chance to win
+        else if(!board.hasKing('K'))
+            return -WIN;                 //score if player high chance to win
+        else
+            return board.material();     //computer piece scores minus player piece scores
+    }
+}
\ No newline at end of file
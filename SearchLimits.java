@@ -0,0 +1,61 @@
+//This class holds the limits of one search: deepest iteration, time budget and boards to visit
+//(0 means no limit of that kind, the search stops at whichever limit is reached first)
+public final class SearchLimits
+{
+    private final int depth;                //deepest iteration (0 for the engine's own limit)
+    private final long timeMillis;          //time budget in milliseconds
+    private final long nodes;               //boards the main search may visit
+    
+    //Constructor of SearchLimits class
+    public SearchLimits(int depth, long timeMillis, long nodes)
+    {
+        if(depth < 0 || timeMillis < 0 || nodes < 0)
+            throw new IllegalArgumentException("Search limits cannot be negative: " + depth + " " + timeMillis + " " + nodes);
+        
+        this.depth = depth;
+        this.timeMillis = timeMillis;
+        this.nodes = nodes;
+    }
+    
+    //Method returns limits that only cap the depth
+    public static SearchLimits depth(int depth)
+    {
+        return new SearchLimits(depth, 0, 0);
+    }
+    
+    //Method returns limits that only cap the time
+    public static SearchLimits time(long timeMillis)
+    {
+        return new SearchLimits(0, timeMillis, 0);
+    }
+    
+    //Method returns limits that only cap the boards visited
+    public static SearchLimits nodes(long nodes)
+    {
+        return new SearchLimits(0, 0, nodes);
+    }
+    
+    //Method returns deepest iteration (0 for no limit)
+    public int depth()
+    {
+        return depth;
+    }
+    
+    //Method returns time budget in milliseconds (0 for no limit)
+    public long timeMillis()
+    {
+        return timeMillis;
+    }
+    
+    //Method returns boards the main search may visit (0 for no limit)
+    public long nodes()
+    {
+        return nodes;
+    }
+    
+    @Override
+    public String toString()
+    {
+        return "depth " + depth + " time " + timeMillis + " nodes " + nodes;
+    }
+}
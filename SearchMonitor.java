@@ -0,0 +1,117 @@
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+//This class adds up the results of every engine search of the program and is registered with the
+//platform MBean server as "MiniChess:type=SearchMonitor" the first time it is used
+public class SearchMonitor implements SearchMonitorMBean
+{
+    public static final String NAME = "MiniChess:type=SearchMonitor";
+    
+    private static SearchMonitor instance;  //monitor of the program (null until first used)
+    
+    private long searches;                  //searches finished
+    private long nodes;                     //boards visited
+    private long cutoffs;                   //beta cutoffs
+    private long firstMoveCutoffs;          //cutoffs by the first move tried
+    private long tableProbes;               //table lookups
+    private long tableHits;                 //lookups that found the board
+    private SearchResult last;              //last search (null if none)
+    private SearchResult slowest;           //slowest search (null if none)
+    
+    //Method returns the monitor, registering it on first use (it still counts if JMX refuses it)
+    public static synchronized SearchMonitor get()
+    {
+        if(instance == null)
+        {
+            instance = new SearchMonitor();
+            try
+            {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(instance, new ObjectName(NAME));
+            }
+            catch(JMException e)
+            {
+                System.err.println("Search monitor not registered: " + e.getMessage());
+            }
+        }
+        
+        return instance;
+    }
+    
+    //Method adds one search result
+    public synchronized void record(SearchResult result)
+    {
+        SearchStats stats = result.stats();
+        searches++;
+        nodes += result.nodes();
+        cutoffs += stats.cutoffs();
+        firstMoveCutoffs += stats.firstMoveCutoffs();
+        tableProbes += stats.tableProbes();
+        tableHits += stats.tableHits();
+        
+        last = result;
+        if(slowest == null || result.elapsedMillis() >= slowest.elapsedMillis())
+            slowest = result;
+    }
+    
+    public synchronized long getSearches()
+    {
+        return searches;
+    }
+    
+    public synchronized long getNodes()
+    {
+        return nodes;
+    }
+    
+    public synchronized long getCutoffs()
+    {
+        return cutoffs;
+    }
+    
+    public synchronized double getFirstMoveCutoffRate()
+    {
+        return cutoffs > 0 ? (double) firstMoveCutoffs / cutoffs : 0;
+    }
+    
+    public synchronized double getTableHitRate()
+    {
+        return tableProbes > 0 ? (double) tableHits / tableProbes : 0;
+    }
+    
+    public synchronized int getLastDepth()
+    {
+        return last != null ? last.depth() : 0;
+    }
+    
+    public synchronized long getLastNodes()
+    {
+        return last != null ? last.nodes() : 0;
+    }
+    
+    public synchronized long getLastMillis()
+    {
+        return last != null ? last.elapsedMillis() : 0;
+    }
+    
+    public synchronized String getLastIterations()
+    {
+        return last != null ? last.stats().toString() : "";
+    }
+    
+    public synchronized long getSlowestMillis()
+    {
+        return slowest != null ? slowest.elapsedMillis() : 0;
+    }
+    
+    public synchronized String getSlowestIterations()
+    {
+        return slowest != null ? slowest + " | " + slowest.stats() : "";
+    }
+    
+    public synchronized void reset()
+    {
+        searches = nodes = cutoffs = firstMoveCutoffs = tableProbes = tableHits = 0;
+        last = slowest = null;
+    }
+}
@@ -0,0 +1,17 @@
+//This interface is what SearchMonitor shows through JMX (jconsole, VisualVM): totals of every
+//search of the program and the figures of the last and slowest ones
+public interface SearchMonitorMBean
+{
+    long getSearches();                 //searches finished, book moves included
+    long getNodes();                    //boards visited by all searches
+    long getCutoffs();                  //beta cutoffs of all searches
+    double getFirstMoveCutoffRate();    //share of cutoffs by the first move tried
+    double getTableHitRate();           //share of table lookups that found the board
+    int getLastDepth();                 //deepest finished iteration of last search
+    long getLastNodes();                //boards visited by last search
+    long getLastMillis();               //time of last search
+    String getLastIterations();         //boards, time and branching factor of each iteration of last search
+    long getSlowestMillis();            //time of slowest search
+    String getSlowestIterations();      //boards, time and branching factor of each iteration of slowest search
+    void reset();                       //sets totals back to 0
+}
@@ -0,0 +1,96 @@
+//This class holds the outcome of one search: best move, its score, the expected line of play
+//and statistics of the work done
+public final class SearchResult
+{
+    private final int size;                 //size of board searched
+    private final int bestMove;             //best move found (Move.NONE if side cannot move)
+    private final int score;                //score of best move (computer pieces positive)
+    private final int[] principalVariation; //best move followed by the expected replies
+    private final int depth;                //deepest finished iteration
+    private final long nodes;               //boards visited by all threads
+    private final long elapsedNanos;        //time spent searching
+    private final SearchStats stats;        //cutoffs, table hits and iterations of all threads
+    
+    //Constructor of SearchResult class without search counts
+    public SearchResult(int size, int bestMove, int score, int[] principalVariation, int depth, long nodes, long elapsedNanos)
+    {
+        this(size, bestMove, score, principalVariation, depth, nodes, elapsedNanos, new SearchStats(0));
+    }
+    
+    //Constructor of SearchResult class
+    public SearchResult(int size, int bestMove, int score, int[] principalVariation, int depth, long nodes, long elapsedNanos,
+        SearchStats stats)
+    {
+        this.size = size;
+        this.bestMove = bestMove;
+        this.score = score;
+        this.principalVariation = principalVariation;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+        this.stats = stats.copy();
+    }
+    
+    //Method returns best move found (Move.NONE if side cannot move)
+    public int bestMove()
+    {
+        return bestMove;
+    }
+    
+    //Method returns score of best move (computer pieces positive, Search.WIN for a won game)
+    public int score()
+    {
+        return score;
+    }
+    
+    //Method returns best move followed by the expected replies
+    public int[] principalVariation()
+    {
+        return principalVariation.clone();
+    }
+    
+    //Method returns deepest finished iteration
+    public int depth()
+    {
+        return depth;
+    }
+    
+    //Method returns boards visited by all threads
+    public long nodes()
+    {
+        return nodes;
+    }
+    
+    //Method returns time spent searching in milliseconds
+    public long elapsedMillis()
+    {
+        return elapsedNanos / 1000000L;
+    }
+    
+    //Method returns boards visited per second
+    public long nodesPerSecond()
+    {
+        return elapsedNanos > 0 ? nodes * 1000000000L / elapsedNanos : 0;
+    }
+    
+    //Method returns cutoffs, table hits and boards and time of each iteration
+    public SearchStats stats()
+    {
+        return stats.copy();
+    }
+    
+    @Override
+    public String toString()
+    {
+        StringBuilder line = new StringBuilder();
+        for(int i = 0; i < principalVariation.length; i++)
+        {
+            if(i > 0)
+                line.append(", ");
+            line.append(Move.toString(principalVariation[i], size));
+        }
+        
+        return "move " + Move.toString(bestMove, size) + " score " + score + " depth " + depth + " nodes " + nodes
+            + " time " + elapsedMillis() + " pv " + line;
+    }
+}
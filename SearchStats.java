@@ -0,0 +1,159 @@
+//This class counts the work of a search: beta cutoffs, how many came from the first move tried,
+//table probes and hits, and the boards and time of each iteration. Every search thread counts into
+//its own object without locking and the counts are added together once the search is over.
+//Run with -Dminichess.stats=false to turn counting off; the flag is a constant, so the JIT
+//removes the counting code altogether.
+public final class SearchStats
+{
+    public static final boolean ENABLED = !"false".equals(System.getProperty("minichess.stats"));
+    
+    private long cutoffs;                   //nodes where a move reached beta
+    private long firstMoveCutoffs;          //cutoffs by the first move tried
+    private long tableProbes;               //transposition table lookups
+    private long tableHits;                 //lookups that found the board
+    private final long[] depthNodes;        //boards visited by each iteration
+    private final long[] depthNanos;        //time spent in each iteration
+    private int iterations;                 //deepest iteration started
+    
+    //Constructor of SearchStats class for iterations up to a depth
+    public SearchStats(int maxDepth)
+    {
+        this.depthNodes = new long[maxDepth + 1];
+        this.depthNanos = new long[maxDepth + 1];
+    }
+    
+    //Method sets every count back to 0 before a search
+    public void reset()
+    {
+        cutoffs = firstMoveCutoffs = tableProbes = tableHits = 0;
+        for(int d = 0; d <= iterations; d++)
+            depthNodes[d] = depthNanos[d] = 0;
+        iterations = 0;
+    }
+    
+    //Method counts a beta cutoff, by the first move tried or a later one
+    public void cutoff(boolean firstMove)
+    {
+        cutoffs++;
+        if(firstMove)
+            firstMoveCutoffs++;
+    }
+    
+    //Method counts a transposition table lookup
+    public void probe(boolean hit)
+    {
+        tableProbes++;
+        if(hit)
+            tableHits++;
+    }
+    
+    //Method records boards and time of one iteration, finished or not
+    public void iteration(int depth, long nodes, long nanos)
+    {
+        depthNodes[depth] += nodes;
+        depthNanos[depth] = Math.max(depthNanos[depth], nanos);
+        iterations = Math.max(iterations, depth);
+    }
+    
+    //Method adds the counts of another thread: boards are added, time per iteration is the longest
+    //of the threads since they run side by side
+    public void add(SearchStats other)
+    {
+        cutoffs += other.cutoffs;
+        firstMoveCutoffs += other.firstMoveCutoffs;
+        tableProbes += other.tableProbes;
+        tableHits += other.tableHits;
+        for(int d = 0; d <= other.iterations && d < depthNodes.length; d++)
+            iteration(d, other.depthNodes[d], other.depthNanos[d]);
+    }
+    
+    //Method returns a copy that later searches do not change
+    public SearchStats copy()
+    {
+        SearchStats copy = new SearchStats(iterations);
+        copy.add(this);
+        return copy;
+    }
+    
+    //Method returns boards visited by all iterations
+    public long nodes()
+    {
+        long nodes = 0;
+        for(int d = 0; d <= iterations; d++)
+            nodes += depthNodes[d];
+        
+        return nodes;
+    }
+    
+    //Method returns number of beta cutoffs
+    public long cutoffs()
+    {
+        return cutoffs;
+    }
+    
+    //Method returns number of cutoffs by the first move tried
+    public long firstMoveCutoffs()
+    {
+        return firstMoveCutoffs;
+    }
+    
+    //Method returns share of cutoffs made by the first move tried, a measure of move ordering
+    public double firstMoveCutoffRate()
+    {
+        return cutoffs > 0 ? (double) firstMoveCutoffs / cutoffs : 0;
+    }
+    
+    //Method returns number of transposition table lookups
+    public long tableProbes()
+    {
+        return tableProbes;
+    }
+    
+    //Method returns number of lookups that found the board
+    public long tableHits()
+    {
+        return tableHits;
+    }
+    
+    //Method returns share of lookups that found the board
+    public double tableHitRate()
+    {
+        return tableProbes > 0 ? (double) tableHits / tableProbes : 0;
+    }
+    
+    //Method returns deepest iteration started
+    public int iterations()
+    {
+        return iterations;
+    }
+    
+    //Method returns boards visited by one iteration
+    public long nodes(int depth)
+    {
+        return depth >= 0 && depth <= iterations ? depthNodes[depth] : 0;
+    }
+    
+    //Method returns time spent in one iteration in milliseconds
+    public double millis(int depth)
+    {
+        return depth >= 0 && depth <= iterations ? depthNanos[depth] / 1e6 : 0;
+    }
+    
+    //Method returns effective branching factor of an iteration: its boards over those of the one before
+    public double branchingFactor(int depth)
+    {
+        long before = nodes(depth - 1);
+        return before > 0 ? (double) nodes(depth) / before : 0;
+    }
+    
+    @Override
+    public String toString()
+    {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("cutoffs %d first %.1f%% table hits %.1f%%", cutoffs, firstMoveCutoffRate() * 100, tableHitRate() * 100));
+        for(int d = 1; d <= iterations; d++)
+            text.append(String.format(" | d%d %d nodes %.1f ms ebf %.2f", d, depthNodes[d], millis(d), branchingFactor(d)));
+        
+        return text.toString();
+    }
+}
@@ -0,0 +1,61 @@
+import java.util.ArrayList;
+
+//Benchmark program: nodes per second of the parallel search for growing thread counts
+public class SmpBenchmark
+{
+    private static final int LAYOUTS = 4;       //starting layouts searched for each thread count
+    
+    public static void main(String[] args)
+    {
+        long timeMillis = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        Variant variant = args.length > 2 ? Variant.named(args[2]) : Variant.STANDARD;
+        
+        BitBoard[] boards = layouts(variant);
+        System.out.println(variant + " on " + Runtime.getRuntime().availableProcessors() + " processors");
+        System.out.println("threads      nodes        nodes/s   speedup   depth");
+        
+        double base = 0;
+        for(int threads = 1; threads <= maxThreads; threads *= 2)
+        {
+            ParallelSearch search = new ParallelSearch(variant, 64, threads);
+            
+            long nodes = 0;
+            long nanos = 0;
+            int depth = 0;
+            for(int k = 0; k < boards.length; k++)
+            {
+                BitBoard board = new BitBoard(boards[k]);
+                
+                long start = System.nanoTime();
+                search.bestMove(board, timeMillis);
+                nanos += System.nanoTime() - start;
+                nodes += search.nodes();
+                depth += search.completedDepth();
+            }
+            search.shutdown();
+            
+            double nps = nodes * 1e9 / nanos;
+            if(threads == 1)
+                base = nps;
+            
+            System.out.printf("%7d %10d %14.0f %9.2f %7.1f%n", threads, nodes, nps, nps / base, (double) depth / boards.length);
+        }
+    }
+    
+    //Method picks starting layouts spread over the orders of the variant's back row, the same ones
+    //on every run (top row computer, bottom row player)
+    private static BitBoard[] layouts(Variant variant)
+    {
+        ArrayList<String> rows = OpeningBook.layouts(variant.backRow());
+        BitBoard[] boards = new BitBoard[LAYOUTS];
+        for(int k = 0; k < LAYOUTS; k++)
+        {
+            String top = rows.get(k * rows.size() / LAYOUTS);
+            String bottom = rows.get(rows.size() - 1 - k * rows.size() / LAYOUTS).toLowerCase();
+            boards[k] = variant.board(top, bottom);
+        }
+        
+        return boards;
+    }
+}
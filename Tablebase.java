@@ -0,0 +1,512 @@
+import java.io.DataOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+//This class holds solved endgames: for every material set of both kings and up to 2 other pieces,
+//the result of every board with either side to move, found by retrograde analysis.
+//A result is one byte: 0 draw, odd n the side to move captures the king in n plies, even n the
+//side to move loses its king in n plies (both sides playing best). Tables are built in memory or
+//read from a memory mapped file:
+//  header  MAGIC, size, most pieces, then the offset of every material set (-1 if not built)
+//  data    one byte per board: index = side * squares^pieces + sum of square of piece i * squares^i,
+//          pieces in order of piece index
+public class Tablebase
+{
+    public static final String DEFAULT_FILE = "endgame.tb";    //file the game opens if it exists
+    public static final int NONE = -1;          //board is not in the tables
+    public static final int MAX_PIECES = 4;     //most pieces built by default
+    
+    private static final int MAGIC = 0x4D435442;        //"MCTB"
+    private static final int SETS = 729;                //material sets, counts of each piece index in base 3
+    private static final int MAX_DISTANCE = 254;        //longest distance a byte holds
+    private static final int HEADER = 12 + 4 * SETS;    //bytes before the data
+    private static final int[] POWERS = { 1, 3, 9, 27, 81, 243 };  //3 to the power of each piece index
+    
+    private final int size;                     //size of boards
+    private final int squares;                  //squares of boards
+    private final int maxPieces;                //most pieces of a board in the tables
+    private final int[] offsets;                //start of data of each material set (-1 if not built)
+    private final ByteBuffer data;              //results of every material set
+    
+    //Constructor of Tablebase class
+    private Tablebase(int size, int maxPieces, int[] offsets, ByteBuffer data)
+    {
+        this.size = size;
+        this.squares = size * size;
+        this.maxPieces = maxPieces;
+        this.offsets = offsets;
+        this.data = data;
+    }
+    
+    //Method returns size of boards
+    public int size()
+    {
+        return size;
+    }
+    
+    //Method returns most pieces of a board in the tables
+    public int maxPieces()
+    {
+        return maxPieces;
+    }
+    
+    //Method returns result of a board with a side to move (NONE if the board is not in the tables)
+    public int probe(BitBoard board, int side)
+    {
+        if(board.size() != size)
+            return NONE;
+        
+        int set = 0;
+        long index = 0;
+        long scale = 1;
+        int pieces = 0;
+        for(int p = 0; p < BitBoard.PIECES; p++)
+        {
+            int count = board.count(p);
+            if(count > 2)
+                return NONE;
+            set += count * POWERS[p];
+            pieces += count;
+        }
+        
+        if(pieces > maxPieces || offsets[set] < 0)
+            return NONE;
+        
+        for(int p = 0; p < BitBoard.PIECES; p++)
+        {
+            for(long bits = board.pieces(p); bits != 0; bits &= bits - 1)
+            {
+                index += Long.numberOfTrailingZeros(bits) * scale;
+                scale *= squares;
+            }
+        }
+        
+        return data.get(offsets[set] + (int) (side * scale + index)) & 0xFF;
+    }
+    
+    //Method returns true if a result is a win for the side to move
+    public static boolean isWin(int result)
+    {
+        return result > 0 && (result & 1) == 1;
+    }
+    
+    //Method returns true if a result is a loss for the side to move
+    public static boolean isLoss(int result)
+    {
+        return result > 0 && (result & 1) == 0;
+    }
+    
+    //Method returns material set of a list of piece indexes
+    private static int setOf(int[] pieces)
+    {
+        int set = 0;
+        for(int i = 0; i < pieces.length; i++)
+            set += power(pieces[i]);
+        
+        return set;
+    }
+    
+    //Method returns 3 to the power of a piece index
+    private static int power(int p)
+    {
+        return POWERS[p];
+    }
+    
+    //Method lists material sets of both kings and up to maxPieces - 2 other pieces (at most 2 of a kind),
+    //fewest pieces first so every capture leads to a set built before
+    private static ArrayList<int[]> materialSets(int maxPieces)
+    {
+        int[] others = { BitBoard.COMP_ROOK, BitBoard.COMP_BISHOP, BitBoard.PLAYER_ROOK, BitBoard.PLAYER_BISHOP };
+        ArrayList<int[]> sets = new ArrayList<int[]>();
+        
+        sets.add(new int[] { BitBoard.COMP_KING, BitBoard.PLAYER_KING });
+        if(maxPieces >= 3)
+            for(int a = 0; a < others.length; a++)
+                sets.add(sorted(BitBoard.COMP_KING, BitBoard.PLAYER_KING, others[a]));
+        if(maxPieces >= 4)
+            for(int a = 0; a < others.length; a++)
+                for(int b = a; b < others.length; b++)
+                    sets.add(sorted(BitBoard.COMP_KING, BitBoard.PLAYER_KING, others[a], others[b]));
+        
+        return sets;
+    }
+    
+    //Method returns piece indexes in order
+    private static int[] sorted(int... pieces)
+    {
+        Arrays.sort(pieces);
+        return pieces;
+    }
+    
+    //Method solves every material set of up to maxPieces pieces (2 to 4) on a board size
+    public static Tablebase build(int size, int maxPieces)
+    {
+        if(maxPieces < 2 || maxPieces > 4)
+            throw new IllegalArgumentException("Tables hold 2 to 4 pieces: " + maxPieces);
+        
+        int squares = size * size;
+        Tables tables = Tables.forSize(size);   //checks size
+        ArrayList<int[]> sets = materialSets(maxPieces);
+        
+        int[] offsets = new int[SETS];
+        Arrays.fill(offsets, -1);
+        long total = 0;
+        for(int s = 0; s < sets.size(); s++)
+        {
+            offsets[setOf(sets.get(s))] = (int) total;
+            total += 2 * pow(squares, sets.get(s).length);
+        }
+        if(total > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Tables of size " + size + " do not fit in one buffer");
+        
+        byte[] results = new byte[(int) total];
+        Tablebase tablebase = new Tablebase(size, maxPieces, offsets, ByteBuffer.wrap(results));
+        
+        for(int s = 0; s < sets.size(); s++)
+            new Solver(tablebase, tables, sets.get(s), results, offsets[setOf(sets.get(s))]).solve();
+        
+        return tablebase;
+    }
+    
+    //Method returns base to the power of exponent
+    private static long pow(int base, int exponent)
+    {
+        long value = 1;
+        for(int i = 0; i < exponent; i++)
+            value *= base;
+        
+        return value;
+    }
+    
+    //Solver class (retrograde analysis of one material set)
+    private static class Solver
+    {
+        private final Tablebase tablebase;      //tables of smaller sets, reached by captures
+        private final Tables tables;            //step masks of the board size
+        private final int[] pieces;             //piece indexes of the set, in order
+        private final byte[] results;           //results of every set
+        private final int offset;               //start of results of this set
+        private final int squares;              //squares of board
+        private final int boards;               //boards of one side to move
+        
+        private final byte[] moves;             //moves inside the set not yet known to lose
+        private final byte[] longestLoss;       //longest loss of the moves known to lose
+        private final byte[] captureWin;        //shortest win by a capture (0 if none)
+        private final boolean[] drawn;          //a capture leads to a draw
+        private final int[][] buckets;          //boards to decide at each distance
+        private final int[] bucketSize;         //boards in each bucket
+        
+        private final int[] at;                 //squares of pieces of the board being looked at
+        
+        //Constructor of Solver class
+        private Solver(Tablebase tablebase, Tables tables, int[] pieces, byte[] results, int offset)
+        {
+            this.tablebase = tablebase;
+            this.tables = tables;
+            this.pieces = pieces;
+            this.results = results;
+            this.offset = offset;
+            this.squares = tablebase.squares;
+            this.boards = (int) pow(squares, pieces.length);
+            
+            this.moves = new byte[2 * boards];
+            this.longestLoss = new byte[2 * boards];
+            this.captureWin = new byte[2 * boards];
+            this.drawn = new boolean[2 * boards];
+            this.buckets = new int[MAX_DISTANCE + 2][];
+            this.bucketSize = new int[MAX_DISTANCE + 2];
+            this.at = new int[pieces.length];
+        }
+        
+        //Method finds result of every board of the set
+        private void solve()
+        {
+            for(int index = 0; index < 2 * boards; index++)
+                if(decode(index))
+                    start(index);
+            
+            //decide boards in order of distance, each decision may decide boards one ply before it
+            for(int d = 1; d <= MAX_DISTANCE; d++)
+            {
+                for(int k = 0; k < bucketSize[d]; k++)
+                {
+                    int index = buckets[d][k];
+                    if(results[offset + index] != 0)    //already decided at a shorter distance
+                        continue;
+                    
+                    results[offset + index] = (byte) d;
+                    decode(index);
+                    retract(index, d);
+                }
+                buckets[d] = null;
+            }
+            
+            if(bucketSize[MAX_DISTANCE + 1] > 0)
+                throw new IllegalStateException("Distance longer than " + MAX_DISTANCE + " plies in set " + Arrays.toString(pieces));
+        }
+        
+        //Method fills the squares of a board, returning false if 2 pieces share a square
+        private boolean decode(int index)
+        {
+            int rest = index % boards;
+            long used = 0L;
+            for(int i = 0; i < pieces.length; i++)
+            {
+                at[i] = rest % squares;
+                rest /= squares;
+                
+                if((used & (1L << at[i])) != 0)
+                    return false;
+                used |= 1L << at[i];
+            }
+            
+            return true;
+        }
+        
+        //Method returns index of the board in at with a side to move
+        private int index(int side)
+        {
+            int index = 0;
+            for(int i = pieces.length - 1; i >= 0; i--)
+                index = index * squares + at[i];
+            
+            return side * boards + index;
+        }
+        
+        //Method returns piece on a square of the board in at (-1 if empty)
+        private int pieceOn(int sq)
+        {
+            for(int i = 0; i < pieces.length; i++)
+                if(at[i] == sq)
+                    return i;
+            
+            return -1;
+        }
+        
+        //Method counts moves of a board and decides what captures alone settle
+        private void start(int index)
+        {
+            int side = index / boards;
+            int quiet = 0;
+            int win = 0;
+            int loss = 0;
+            boolean draw = false;
+            boolean any = false;
+            
+            for(int i = 0; i < pieces.length; i++)
+            {
+                if(BitBoard.sideOf(pieces[i]) != side)
+                    continue;
+                
+                for(long to = tables.steps(pieces[i] % 3, at[i]); to != 0; to &= to - 1)
+                {
+                    int t = Long.numberOfTrailingZeros(to);
+                    int j = pieceOn(t);
+                    
+                    if(j < 0)
+                    {
+                        quiet++;
+                        any = true;
+                    }
+                    else if(BitBoard.sideOf(pieces[j]) != side && pieces[j] % 3 == 0)
+                    {
+                        any = true;
+                        win = 1;                    //king taken, game is won on this ply
+                    }
+                    else if(BitBoard.sideOf(pieces[j]) != side)
+                    {
+                        any = true;
+                        int result = captured(i, t, j, 1 - side);
+                        
+                        if(result == 0)
+                            draw = true;
+                        else if(isLoss(result))     //opponent loses, this side wins one ply later
+                            win = win == 0 ? result + 1 : Math.min(win, result + 1);
+                        else
+                            loss = Math.max(loss, result + 1);
+                    }
+                }
+            }
+            
+            if(!any)                    //side to move is stuck, game is drawn
+            {
+                results[offset + index] = 0;
+                return;
+            }
+            
+            moves[index] = (byte) quiet;
+            longestLoss[index] = (byte) loss;
+            captureWin[index] = (byte) win;
+            drawn[index] = draw;
+            
+            if(win != 0)
+                push(win, index);
+            else if(quiet == 0 && !draw)    //every move is a capture that loses
+                push(loss, index);
+        }
+        
+        //Method returns result of the smaller set after piece i captures piece j (not a king) on square t
+        private int captured(int i, int t, int j, int side)
+        {
+            //remaining pieces keep their order
+            long index = 0;
+            long scale = 1;
+            int set = 0;
+            for(int k = 0; k < pieces.length; k++)
+            {
+                if(k == j)
+                    continue;
+                
+                index += (k == i ? t : at[k]) * scale;
+                scale *= squares;
+                set += power(pieces[k]);
+            }
+            
+            return results[tablebase.offsets[set] + (int) (side * scale + index)] & 0xFF;
+        }
+        
+        //Method takes back every move that leads to a decided board, deciding boards before it
+        private void retract(int index, int d)
+        {
+            int side = index / boards;      //side to move on the decided board
+            int mover = 1 - side;           //side that moved to it
+            
+            for(int i = 0; i < pieces.length; i++)
+            {
+                if(BitBoard.sideOf(pieces[i]) != mover)
+                    continue;
+                
+                int from = at[i];
+                for(long to = tables.steps(pieces[i] % 3, from); to != 0; to &= to - 1)
+                {
+                    int t = Long.numberOfTrailingZeros(to);
+                    if(pieceOn(t) >= 0)
+                        continue;
+                    
+                    at[i] = t;                  //Variant makes steps symmetric, so the piece came from t
+                    int before = index(mover);
+                    at[i] = from;
+                    
+                    if(results[offset + before] != 0)
+                        continue;
+                    
+                    if(isLoss(d))               //mover can reach a lost board, mover wins
+                    {
+                        push(d + 1, before);
+                    }
+                    else                        //this move loses for the mover
+                    {
+                        longestLoss[before] = (byte) Math.max(longestLoss[before] & 0xFF, d + 1);
+                        if(--moves[before] == 0 && !drawn[before] && captureWin[before] == 0)
+                            push(longestLoss[before] & 0xFF, before);
+                    }
+                }
+            }
+        }
+        
+        //Method adds a board to the bucket of a distance
+        private void push(int d, int index)
+        {
+            d = Math.min(d, MAX_DISTANCE + 1);
+            if(buckets[d] == null)
+                buckets[d] = new int[1024];
+            else if(bucketSize[d] == buckets[d].length)
+                buckets[d] = Arrays.copyOf(buckets[d], bucketSize[d] * 2);
+            
+            buckets[d][bucketSize[d]++] = index;
+        }
+    }
+    
+    //Method writes tables to a file
+    public void write(File file) throws IOException
+    {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+        try
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(size);
+            out.writeInt(maxPieces);
+            for(int s = 0; s < SETS; s++)
+                out.writeInt(offsets[s]);
+            
+            ByteBuffer copy = data.duplicate();
+            copy.clear();
+            byte[] chunk = new byte[1 << 16];
+            while(copy.hasRemaining())
+            {
+                int n = Math.min(chunk.length, copy.remaining());
+                copy.get(chunk, 0, n);
+                out.write(chunk, 0, n);
+            }
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+    
+    //Method maps tables of a file into memory
+    public static Tablebase open(File file) throws IOException
+    {
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try
+        {
+            if(in.readInt() != MAGIC)
+                throw new IOException("Not a tablebase file: " + file);
+            
+            int size = in.readInt();
+            int maxPieces = in.readInt();
+            int[] offsets = new int[SETS];
+            for(int s = 0; s < SETS; s++)
+                offsets[s] = in.readInt();
+            
+            Tables.forSize(size);       //checks size
+            FileChannel channel = in.getChannel();
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, HEADER, channel.size() - HEADER);
+            return new Tablebase(size, maxPieces, offsets, data);
+        }
+        finally
+        {
+            in.close();                 //mapping stays valid after the file is closed
+        }
+    }
+    
+    //Method opens the default file if it exists and fits a board size (null otherwise)
+    public static Tablebase openDefault(int size)
+    {
+        File file = new File(DEFAULT_FILE);
+        if(!file.isFile())
+            return null;
+        
+        try
+        {
+            Tablebase tablebase = open(file);
+            return tablebase.size() == size ? tablebase : null;
+        }
+        catch(IOException e)
+        {
+            return null;
+        }
+    }
+    
+    //Program builds tables and writes them to a file
+    public static void main(String[] args) throws IOException
+    {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        int maxPieces = args.length > 1 ? Integer.parseInt(args[1]) : MAX_PIECES;
+        File file = new File(args.length > 2 ? args[2] : DEFAULT_FILE);
+        
+        long start = System.nanoTime();
+        Tablebase tablebase = build(size, maxPieces);
+        tablebase.write(file);
+        
+        System.out.printf("%d bytes of tables written to %s in %.1f s%n", tablebase.data.capacity(), file, (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,167 @@
+//This class holds lookup tables for each board size, built once when the class is loaded:
+//piece scores per square, step masks per square and distances between squares
+public final class Tables
+{
+    public static final int MIN_SIZE = 3;           //smallest board with inner squares
+    public static final int MAX_SIZE = 8;           //largest board that fits in a long
+    
+    //scores of pieces on an edge square and on an inner square
+    private static final int[] KING_SCORE = { 5, 8 };
+    private static final int[] ROOK_SCORE = { 3, 4 };
+    private static final int[] BISHOP_SCORE = { 2, 3 };
+    
+    //steps of each piece kind in the standard game (row change, column change)
+    private static final int[][] KING_STEPS = { {1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {-1, -1}, {-1, 1}, {1, -1} };
+    private static final int[][] ROOK_STEPS = { {1, 0}, {-1, 0}, {0, 1}, {0, -1} };
+    private static final int[][] BISHOP_STEPS = { {1, 1}, {-1, -1}, {-1, 1}, {1, -1} };
+    
+    private static final Tables[] BY_SIZE = new Tables[MAX_SIZE + 1];   //tables of every size
+    
+    static
+    {
+        for(int size = MIN_SIZE; size <= MAX_SIZE; size++)
+            BY_SIZE[size] = new Tables(size);
+    }
+    
+    private final int size;                 //size of board
+    private final long innerMask;           //squares not on the edge of the board
+    private final int[] pieceSquare;        //score per piece index and square (player pieces negative)
+    private final long[][] steps;           //step masks per piece kind and square (king mask is the neighbours)
+    private final int[][] distance;         //steps between squares moving one row or column at a time
+    private final int[][] bishopDistance;   //diagonal steps between squares (Integer.MAX_VALUE if unreachable)
+    
+    //Constructor builds tables of a board size
+    private Tables(int size)
+    {
+        this.size = size;
+        int squares = size * size;
+        
+        long inner = 0L;
+        for(int i = 1; i < size - 1; i++)
+            for(int j = 1; j < size - 1; j++)
+                inner |= 1L << (i * size + j);
+        this.innerMask = inner;
+        
+        this.pieceSquare = new int[BitBoard.PIECES * 64];
+        this.steps = stepMasks(size, new int[][][] { KING_STEPS, ROOK_STEPS, BISHOP_STEPS });
+        this.distance = new int[squares][squares];
+        this.bishopDistance = new int[squares][squares];
+        
+        for(int i = 0; i < size; i++)
+        {
+            for(int j = 0; j < size; j++)
+            {
+                int sq = i * size + j;
+                int inSq = ((inner >>> sq) & 1L) == 0 ? 0 : 1;
+                
+                pieceSquare[BitBoard.COMP_KING * 64 + sq] = KING_SCORE[inSq];
+                pieceSquare[BitBoard.COMP_ROOK * 64 + sq] = ROOK_SCORE[inSq];
+                pieceSquare[BitBoard.COMP_BISHOP * 64 + sq] = BISHOP_SCORE[inSq];
+                pieceSquare[BitBoard.PLAYER_KING * 64 + sq] = -KING_SCORE[inSq];
+                pieceSquare[BitBoard.PLAYER_ROOK * 64 + sq] = -ROOK_SCORE[inSq];
+                pieceSquare[BitBoard.PLAYER_BISHOP * 64 + sq] = -BISHOP_SCORE[inSq];
+                
+                for(int x = 0; x < size; x++)
+                {
+                    for(int y = 0; y < size; y++)
+                    {
+                        int di = Math.abs(i - x);
+                        int dj = Math.abs(j - y);
+                        
+                        distance[sq][x * size + y] = di + dj;
+                        bishopDistance[sq][x * size + y] = (di + dj) % 2 == 0 ? Math.max(di, dj) : Integer.MAX_VALUE;
+                    }
+                }
+            }
+        }
+    }
+    
+    //Method returns a copy of the standard steps of a piece kind (0 king, 1 rook, 2 bishop)
+    public static int[][] standardSteps(int kind)
+    {
+        int[][] steps = kind == 0 ? KING_STEPS : kind == 1 ? ROOK_STEPS : BISHOP_STEPS;
+        int[][] copy = new int[steps.length][];
+        for(int k = 0; k < steps.length; k++)
+            copy[k] = steps[k].clone();
+        
+        return copy;
+    }
+    
+    //Method builds target masks per piece kind and square of a board size from the steps of each kind
+    public static long[][] stepMasks(int size, int[][][] kindSteps)
+    {
+        long[][] masks = new long[kindSteps.length][size * size];
+        for(int kind = 0; kind < kindSteps.length; kind++)
+            for(int i = 0; i < size; i++)
+                for(int j = 0; j < size; j++)
+                    masks[kind][i * size + j] = mask(size, i, j, kindSteps[kind]);
+        
+        return masks;
+    }
+    
+    //Method turns a list of steps into a mask of target squares that are on the board
+    private static long mask(int size, int i, int j, int[][] steps)
+    {
+        long mask = 0L;
+        for(int k = 0; k < steps.length; k++)
+        {
+            int toI = i + steps[k][0];
+            int toJ = j + steps[k][1];
+            if(toI >= 0 && toI < size && toJ >= 0 && toJ < size)
+                mask |= 1L << (toI * size + toJ);
+        }
+        
+        return mask;
+    }
+    
+    //Method returns tables of a board size
+    public static Tables forSize(int size)
+    {
+        if(size < MIN_SIZE || size > MAX_SIZE)
+            throw new IllegalArgumentException("Board size must be between " + MIN_SIZE + " and " + MAX_SIZE + ": " + size);
+        
+        return BY_SIZE[size];
+    }
+    
+    //Method returns size of board
+    public int size()
+    {
+        return size;
+    }
+    
+    //Method returns squares not on the edge of the board
+    public long innerMask()
+    {
+        return innerMask;
+    }
+    
+    //Method returns score table indexed by piece index * 64 + square
+    public int[] pieceSquare()
+    {
+        return pieceSquare;
+    }
+    
+    //Method returns target squares of a piece kind (0 king, 1 rook, 2 bishop) on a square
+    public long steps(int kind, int sq)
+    {
+        return steps[kind][sq];
+    }
+    
+    //Method returns squares next to a square
+    public long neighbours(int sq)
+    {
+        return steps[0][sq];
+    }
+    
+    //Method returns steps between 2 squares moving one row or column at a time
+    public int distance(int from, int to)
+    {
+        return distance[from][to];
+    }
+    
+    //Method returns diagonal steps between 2 squares (Integer.MAX_VALUE if unreachable)
+    public int bishopDistance(int from, int to)
+    {
+        return bishopDistance[from][to];
+    }
+}
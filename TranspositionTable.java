@@ -0,0 +1,149 @@
+import java.util.Arrays;
+
+//This class stores search results by Zobrist key in a fixed size table of longs
+//Threads may share one table without locks: the key slot holds key xor data, so a torn
+//write from two threads no longer matches its key and reads as empty
+//Every entry holds the generation of the search that stored it, so a deep entry left by an earlier
+//search (of a board the game may never reach again) does not hold its slot for the rest of the game
+//Clearing and resizing are recorded as flight recorder events; neither may run during a search
+public class TranspositionTable
+{
+    //bound types
+    public static final int EXACT = 0;              //score is the exact value
+    public static final int LOWER = 1;              //value is at least score
+    public static final int UPPER = 2;              //value is at most score
+    
+    //replacement policies
+    public enum Replacement
+    {
+        ALWAYS,                                     //new result always takes the slot
+        DEPTH_PREFERRED                             //slot keeps the deeper search of different boards
+                                                    //stored by the same search
+    }
+    
+    private static final long VALID = 1L << 30;     //set in every stored entry
+    private static final int GENERATIONS = 256;     //generations kept apart before they wrap around
+    
+    private long[] table;                           //two longs per entry: key xor data and packed data
+    private int mask;                               //entries - 1, picks the slot of a key
+    private final Replacement replacement;          //replacement policy
+    private volatile int generation;                //generation of the running search
+    
+    //Constructor of TranspositionTable class (entries must be a power of two)
+    public TranspositionTable(int entries, Replacement replacement)
+    {
+        if(entries <= 0 || (entries & (entries - 1)) != 0)
+            throw new IllegalArgumentException("Entries must be a power of two: " + entries);
+        
+        this.table = new long[entries * 2];
+        this.mask = entries - 1;
+        this.replacement = replacement;
+    }
+    
+    //Method returns number of entries
+    public int entries()
+    {
+        return mask + 1;
+    }
+    
+    //Method starts a new search: entries stored before are kept but may be replaced at any depth
+    public void newSearch()
+    {
+        generation = (generation + 1) % GENERATIONS;
+    }
+    
+    //Method returns packed data stored for a key (0 if there is none)
+    public long probe(long key)
+    {
+        int index = ((int) key & mask) << 1;
+        long data = table[index + 1];
+        
+        if((table[index] ^ data) == key && (data & VALID) != 0)
+            return data;
+        
+        return 0L;
+    }
+    
+    //Method stores a search result for a key
+    public void store(long key, int depth, int bound, int score, int move)
+    {
+        int index = ((int) key & mask) << 1;
+        long old = table[index + 1];
+        int current = generation;
+        
+        if(replacement == Replacement.DEPTH_PREFERRED
+           && (table[index] ^ old) != key
+           && (old & VALID) != 0
+           && generation(old) == current
+           && depth(old) > depth)
+        {
+            return;     //keep deeper result of another board from this search
+        }
+        
+        long data = ((long) score << 40) | ((long) current << 32) | VALID | ((long) bound << 28) | ((long) depth << 20) | move;
+        table[index] = key ^ data;
+        table[index + 1] = data;
+    }
+    
+    //Method empties the table
+    public void clear()
+    {
+        FlightEvents.TableEvent event = FlightEvents.table();
+        if(event != null)
+            event.begin();
+        
+        Arrays.fill(table, 0L);
+        
+        if(event != null)
+            event.end("clear", entries(), entries(), table.length * 8L);
+    }
+    
+    //Method replaces the table with an empty one of a number of entries (a power of two)
+    public void resize(int entries)
+    {
+        if(entries <= 0 || (entries & (entries - 1)) != 0)
+            throw new IllegalArgumentException("Entries must be a power of two: " + entries);
+        
+        FlightEvents.TableEvent event = FlightEvents.table();
+        if(event != null)
+            event.begin();
+        
+        int previous = entries();
+        this.table = null;                          //let the old table go before allocating the new one
+        this.table = new long[entries * 2];
+        this.mask = entries - 1;
+        
+        if(event != null)
+            event.end("resize", entries, previous, table.length * 8L);
+    }
+    
+    //Method returns depth of packed data
+    public static int depth(long data)
+    {
+        return (int) (data >>> 20) & 0xFF;
+    }
+    
+    //Method returns bound type of packed data
+    public static int bound(long data)
+    {
+        return (int) (data >>> 28) & 3;
+    }
+    
+    //Method returns generation of the search that stored packed data
+    public static int generation(long data)
+    {
+        return (int) (data >>> 32) & 0xFF;
+    }
+    
+    //Method returns score of packed data
+    public static int score(long data)
+    {
+        return (int) (data >> 40);
+    }
+    
+    //Method returns best move of packed data
+    public static int move(long data)
+    {
+        return (int) data & 0xFFFFF;
+    }
+}
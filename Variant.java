@@ -0,0 +1,239 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+//This class defines a variant of the game: board size, the computer's back row (the player's is the
+//same in lowercase, both shuffled at the start of a game) and the steps each piece kind may make.
+//The target masks of every piece on every square are built once when the variant is made, so
+//generating moves costs the same for every variant. Every step must come with its reverse, since
+//a piece is found attacking a square by stepping from that square. Boards up to 8x8 fit in one
+//long per piece, so every variant runs on BitBoard; larger boards are refused.
+public final class Variant
+{
+    //variants that can be picked by name
+    public static final Variant SMALL = new Variant("5x5", 5, "RKBR ");
+    public static final Variant STANDARD = new Variant("6x6", 6, "RKBBR ");
+    public static final Variant LARGE = new Variant("7x7", 7, "RKBBRR ");
+    public static final Variant FULL = new Variant("8x8", 8, "RRKBBRB ");
+    
+    private static final Variant[] NAMED = { SMALL, STANDARD, LARGE, FULL };
+    private static final String PIECES = "KRB ";    //symbols a back row may hold, by kind
+    
+    private final String name;              //name to pick the variant by
+    private final int size;                 //size of board
+    private final String backRow;           //computer's back row, ' ' for an empty square
+    private final int[][][] steps;          //steps per piece kind (row change, column change)
+    private final long[][] targets;         //target squares per piece kind and square
+    private final boolean standard;         //pieces move as in the standard game
+    
+    //Constructor of Variant class with the standard steps (king one square any way, rook one square
+    //along a row or column, bishop one square diagonally)
+    public Variant(String name, int size, String backRow)
+    {
+        this(name, size, backRow, Tables.standardSteps(0), Tables.standardSteps(1), Tables.standardSteps(2));
+    }
+    
+    //Constructor of Variant class with the steps of each piece kind
+    public Variant(String name, int size, String backRow, int[][] kingSteps, int[][] rookSteps, int[][] bishopSteps)
+    {
+        if(size < Tables.MIN_SIZE || size > Tables.MAX_SIZE)
+            throw new IllegalArgumentException("Board size must be between " + Tables.MIN_SIZE + " and " + Tables.MAX_SIZE + ": " + size);
+        if(backRow.length() != size)
+            throw new IllegalArgumentException("Back row must have " + size + " squares: \"" + backRow + "\"");
+        
+        int[][][] steps = { copy(kingSteps), copy(rookSteps), copy(bishopSteps) };
+        int kings = 0;
+        int moves = 0;                      //most moves one side can ever have (pieces are never added)
+        for(int j = 0; j < size; j++)
+        {
+            int kind = PIECES.indexOf(backRow.charAt(j));
+            if(kind < 0)
+                throw new IllegalArgumentException("Back row may only hold K, R, B and spaces: \"" + backRow + "\"");
+            if(kind == 0)
+                kings++;
+            if(kind < 3)
+                moves += steps[kind].length;
+        }
+        if(kings != 1)
+            throw new IllegalArgumentException("Back row must hold one king: \"" + backRow + "\"");
+        if(moves > MoveGenerator.MAX_MOVES)
+            throw new IllegalArgumentException("Pieces of the back row could have " + moves + " moves, more than " + MoveGenerator.MAX_MOVES);
+        
+        for(int kind = 0; kind < 3; kind++)
+        {
+            for(int k = 0; k < steps[kind].length; k++)
+            {
+                int[] step = steps[kind][k];
+                if(step.length != 2 || (step[0] == 0 && step[1] == 0))
+                    throw new IllegalArgumentException("Step must be a row and column change other than 0 0: " + Arrays.toString(step));
+            }
+            
+            //check detection and tablebase retraction look for attackers with the piece's own steps
+            //from the attacked square, which only works if every step can also be made backwards
+            for(int k = 0; k < steps[kind].length; k++)
+                if(!hasStep(steps[kind], -steps[kind][k][0], -steps[kind][k][1]))
+                    throw new IllegalArgumentException("Steps of " + PIECES.charAt(kind) + " must include the reverse of " + Arrays.toString(steps[kind][k]));
+        }
+        
+        this.name = name;
+        this.size = size;
+        this.backRow = backRow;
+        this.steps = steps;
+        this.targets = Tables.stepMasks(size, steps);
+        this.standard = Arrays.deepEquals(steps, new int[][][] { Tables.standardSteps(0), Tables.standardSteps(1), Tables.standardSteps(2) });
+    }
+    
+    //Method returns true if a list of steps holds a row and column change
+    private static boolean hasStep(int[][] steps, int rows, int columns)
+    {
+        for(int k = 0; k < steps.length; k++)
+            if(steps[k][0] == rows && steps[k][1] == columns)
+                return true;
+        
+        return false;
+    }
+    
+    //Method copies a list of steps
+    private static int[][] copy(int[][] steps)
+    {
+        int[][] copy = new int[steps.length][];
+        for(int k = 0; k < steps.length; k++)
+            copy[k] = steps[k].clone();
+        
+        return copy;
+    }
+    
+    //Method returns the named variant of a size, or one with standard steps and a back row of
+    //rooks and bishops around the king for sizes without one
+    public static Variant forSize(int size)
+    {
+        for(int i = 0; i < NAMED.length; i++)
+            if(NAMED[i].size == size)
+                return NAMED[i];
+        
+        if(size < Tables.MIN_SIZE || size > Tables.MAX_SIZE)
+            throw new IllegalArgumentException("Board size must be between " + Tables.MIN_SIZE + " and " + Tables.MAX_SIZE + ": " + size);
+        
+        return new Variant(size + "x" + size, size, "RKBBRR  ".substring(0, size - 1) + " ");
+    }
+    
+    //Method returns the variant with a name (such as "7x7") or board size (such as "7")
+    public static Variant named(String name)
+    {
+        for(int i = 0; i < NAMED.length; i++)
+            if(NAMED[i].name.equals(name))
+                return NAMED[i];
+        
+        try
+        {
+            return forSize(Integer.parseInt(name));
+        }
+        catch(NumberFormatException e)
+        {
+            throw new IllegalArgumentException("Unknown variant: " + name);
+        }
+    }
+    
+    //Method returns name of variant
+    public String name()
+    {
+        return name;
+    }
+    
+    //Method returns size of board
+    public int size()
+    {
+        return size;
+    }
+    
+    //Method returns computer's back row, ' ' for an empty square
+    public String backRow()
+    {
+        return backRow;
+    }
+    
+    //Method returns steps of a piece kind (0 king, 1 rook, 2 bishop)
+    public int[][] steps(int kind)
+    {
+        return copy(steps[kind]);
+    }
+    
+    //Method returns target squares of a piece kind (0 king, 1 rook, 2 bishop) on a square
+    public long targets(int kind, int sq)
+    {
+        return targets[kind][sq];
+    }
+    
+    //Method returns a number that tells variants apart in files built for one of them: it covers the
+    //size, the pieces of the back row in any order and the steps, but not the name
+    public long key()
+    {
+        char[] pieces = backRow.toCharArray();
+        Arrays.sort(pieces);
+        
+        long key = size;
+        for(int j = 0; j < pieces.length; j++)
+            key = key * 31 + pieces[j];
+        for(int kind = 0; kind < 3; kind++)
+        {
+            key = key * 31 + steps[kind].length;
+            for(int k = 0; k < steps[kind].length; k++)
+                key = (key * 31 + steps[kind][k][0]) * 31 + steps[kind][k][1];
+        }
+        
+        return key;
+    }
+    
+    //Method builds a starting board from an order of the computer's back row and one of the player's
+    //(in lowercase)
+    public BitBoard board(String computerRow, String playerRow)
+    {
+        if(computerRow.length() != size || playerRow.length() != size)
+            throw new IllegalArgumentException("Back rows must have " + size + " squares: \"" + computerRow + "\" \"" + playerRow + "\"");
+        
+        BitBoard board = new BitBoard(size);
+        for(int j = 0; j < size; j++)
+        {
+            board.set(0, j, computerRow.charAt(j));
+            board.set(size - 1, j, playerRow.charAt(j));
+        }
+        
+        return board;
+    }
+    
+    //Method builds a starting board with both back rows shuffled, as a new game starts
+    public BitBoard shuffledBoard()
+    {
+        ArrayList<Character> c = new ArrayList<Character>();
+        ArrayList<Character> p = new ArrayList<Character>();
+        for(int j = 0; j < size; j++)
+        {
+            c.add(backRow.charAt(j));
+            p.add(Character.toLowerCase(backRow.charAt(j)));
+        }
+        Collections.shuffle(c);
+        Collections.shuffle(p);
+        
+        StringBuilder top = new StringBuilder();
+        StringBuilder bottom = new StringBuilder();
+        for(int j = 0; j < size; j++)
+        {
+            top.append(c.get(j));
+            bottom.append(p.get(j));
+        }
+        
+        return board(top.toString(), bottom.toString());
+    }
+    
+    //Method returns true if pieces move as in the standard game, so endgame tables of its size apply
+    public boolean isStandard()
+    {
+        return standard;
+    }
+    
+    @Override
+    public String toString()
+    {
+        return name;
+    }
+}
@@ -0,0 +1,49 @@
+//This class holds the random keys used to hash boards (Zobrist hashing)
+public final class Zobrist
+{
+    private static final long SEED = 0x6D696E6963686573L;    //fixed seed so keys are the same every run
+    
+    private static final long[][] PIECE_KEYS = new long[BitBoard.PIECES][64];  //key per piece index and square
+    private static final long SIDE_KEY;                                         //key xored in when player is to move
+    
+    static
+    {
+        long state = SEED;
+        for(int p = 0; p < BitBoard.PIECES; p++)
+        {
+            for(int sq = 0; sq < 64; sq++)
+            {
+                state += 0x9E3779B97F4A7C15L;
+                PIECE_KEYS[p][sq] = mix(state);
+            }
+        }
+        
+        state += 0x9E3779B97F4A7C15L;
+        SIDE_KEY = mix(state);
+    }
+    
+    //Constructor is private since class only has static helpers
+    private Zobrist()
+    {
+    }
+    
+    //Method scrambles a counter into a random looking long (splitmix64)
+    private static long mix(long z)
+    {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    //Method returns key of a piece index on a square
+    public static long piece(int piece, int sq)
+    {
+        return PIECE_KEYS[piece][sq];
+    }
+    
+    //Method returns key of the side to move (0 for computer)
+    public static long side(int side)
+    {
+        return side == BitBoard.PLAYER ? SIDE_KEY : 0L;
+    }
+}
@@ -0,0 +1,75 @@
+import minichess.bench.Engine;
+
+//Implements benchmark operations on top of the engine classes (both live in the default package)
+public class EngineAccess implements Engine
+{
+    //corpus: side to move, then rows (top row is computer side)
+    private static final String[][] CORPUS =
+    {
+        { "c", "RKBBR.", "......", "......", "......", "......", ".rkbbr" },
+        { "p", "BRK.RB", "......", "......", "......", "......", "rb.kbr" },
+        { "c", "R....B", "..K.B.", ".r..R.", "..b.k.", "....b.", "r....." },
+        { "p", "......", ".RbR..", ".bKr..", "..Bk..", "..rB..", "......" },
+        { "c", "......", "..K...", "......", "...R..", "....k.", "......" }
+    };
+    
+    private final MoveGenerator generator = new MoveGenerator(6);
+    
+    public int positions()
+    {
+        return CORPUS.length;
+    }
+    
+    public Object position(int index)
+    {
+        String[] rows = new String[CORPUS[index].length - 1];
+        System.arraycopy(CORPUS[index], 1, rows, 0, rows.length);
+        return BitBoard.fromRows(rows);
+    }
+    
+    public int side(int index)
+    {
+        return CORPUS[index][0].equals("c") ? BitBoard.COMPUTER : BitBoard.PLAYER;
+    }
+    
+    public int generate(Object board, int side, int[] moves)
+    {
+        return generator.generate((BitBoard) board, side, moves);
+    }
+    
+    public int evaluate(Object board)
+    {
+        return Search.evaluate((BitBoard) board);
+    }
+    
+    public Object copy(Object board)
+    {
+        return new BitBoard((BitBoard) board);
+    }
+    
+    public boolean identical(Object board, Object other)
+    {
+        return board.equals(other);
+    }
+    
+    public Object search(int depth, String algorithm)
+    {
+        TranspositionTable table = new TranspositionTable(1 << 18, TranspositionTable.Replacement.DEPTH_PREFERRED);
+        Search search = new Search(6, depth, table);
+        search.setAlgorithm(Search.Algorithm.valueOf(algorithm));
+        return new Object[] { search, table };
+    }
+    
+    public void reset(Object search)
+    {
+        ((Search) ((Object[]) search)[0]).clearHistory();
+        ((TranspositionTable) ((Object[]) search)[1]).clear();
+    }
+    
+    public long nodes(Object search, Object board)
+    {
+        Search s = (Search) ((Object[]) search)[0];
+        s.bestMove((BitBoard) board);
+        return s.nodes();
+    }
+}
@@ -0,0 +1,37 @@
+package minichess.bench;
+
+//Operations of the engine that the benchmarks time. The engine classes are in the default
+//package, which named packages cannot see, so EngineAccess (default package) implements this
+//interface and the benchmarks load it by name. Positions and searches are passed as Object.
+public interface Engine
+{
+    //Method returns number of positions in the corpus
+    int positions();
+    
+    //Method returns a new board of a corpus position
+    Object position(int index);
+    
+    //Method returns side to move of a corpus position (0 computer, 1 player)
+    int side(int index);
+    
+    //Method fills moves with every legal move of side and returns how many there are
+    int generate(Object board, int side, int[] moves);
+    
+    //Method evaluates a board
+    int evaluate(Object board);
+    
+    //Method makes a copy of a board
+    Object copy(Object board);
+    
+    //Method returns true if 2 boards are identical
+    boolean identical(Object board, Object other);
+    
+    //Method creates a single thread search to a fixed depth with an algorithm (MINMAX or PVS)
+    Object search(int depth, String algorithm);
+    
+    //Method empties the transposition table of a search and forgets its killers and history
+    void reset(Object search);
+    
+    //Method searches a board and returns number of boards visited
+    long nodes(Object search, Object board);
+}
@@ -0,0 +1,23 @@
+package minichess.bench;
+
+//Loads the engine access class from the default package
+final class Engines
+{
+    //Constructor is private since class only has static helpers
+    private Engines()
+    {
+    }
+    
+    //Method creates the engine access object
+    static Engine load()
+    {
+        try
+        {
+            return (Engine) Class.forName("EngineAccess").getDeclaredConstructor().newInstance();
+        }
+        catch(ReflectiveOperationException e)
+        {
+            throw new IllegalStateException("EngineAccess is missing from the benchmark jar", e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package minichess.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//Benchmarks of the per-node operations: move generation, evaluation, copy and comparison
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotPathBenchmark
+{
+    @Param({ "0", "1", "2", "3", "4" })
+    public int position;                    //index into corpus
+    
+    private Engine engine;
+    private Object board;
+    private Object same;                    //equal board, different object
+    private int side;
+    private final int[] moves = new int[64];
+    
+    @Setup
+    public void setup()
+    {
+        engine = Engines.load();
+        board = engine.position(position);
+        same = engine.copy(board);
+        side = engine.side(position);
+    }
+    
+    @Benchmark
+    public int generate()
+    {
+        return engine.generate(board, side, moves);
+    }
+    
+    @Benchmark
+    public int evaluate()
+    {
+        return engine.evaluate(board);
+    }
+    
+    @Benchmark
+    public Object copy()
+    {
+        return engine.copy(board);
+    }
+    
+    @Benchmark
+    public boolean identicalBoard()
+    {
+        return engine.identical(board, same);
+    }
+}
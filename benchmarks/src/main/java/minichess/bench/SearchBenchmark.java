@@ -0,0 +1,75 @@
+package minichess.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//Benchmark of full fixed depth searches over the corpus, reporting nodes per second as well
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark
+{
+    @Param({ "6", "8" })
+    public int depth;                       //fixed search depth
+    
+    @Param({ "MINMAX", "PVS" })
+    public String algorithm;                //search algorithm, compared by nodes and time
+    
+    private Engine engine;
+    private Object search;
+    private Object[] boards;
+    
+    //Counter reported by JMH as a rate next to the search rate
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes
+    {
+        public long nodes;                  //boards visited
+    }
+    
+    @Setup
+    public void setup()
+    {
+        engine = Engines.load();
+        search = engine.search(depth, algorithm);
+        boards = new Object[engine.positions()];
+        for(int i = 0; i < boards.length; i++)
+            boards[i] = engine.position(i);
+    }
+    
+    //every search starts from an empty table and no killers or history, so each one visits the same
+    //boards; an invocation searches the whole corpus (2 ms and more), so the per-invocation setup
+    //JMH runs outside the timing stays small next to it
+    @Setup(Level.Invocation)
+    public void reset()
+    {
+        engine.reset(search);
+    }
+    
+    @Benchmark
+    public long minmax(Nodes counter)
+    {
+        long nodes = 0;
+        for(int i = 0; i < boards.length; i++)
+            nodes += engine.nodes(search, boards[i]);
+        
+        counter.nodes += nodes;
+        return nodes;
+    }
+}
@@ -0,0 +1,47 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+//This class is the Java Flight Recorder event of one computer move of the game, from the start of
+//the search to the move being applied, so slow moves can be lined up against GC events
+//(built only by a JDK 11 or later, created through FlightEvents)
+@Name("minichess.ComputerMove")
+@Label("Computer Move")
+@Category("Mini Chess")
+@Description("One computer move of the game")
+public class JfrComputerMoveEvent extends jdk.jfr.Event implements FlightEvents.ComputerMoveEvent
+{
+    @Label("Mode")
+    public String mode;                     //"in place" or "copy"
+    
+    @Label("Move")
+    public String move;                     //move played
+    
+    @Label("Depth")
+    public int depth;                       //deepest finished iteration
+    
+    @Label("Nodes")
+    public long nodes;                      //boards visited
+    
+    @Label("Allocated")
+    @DataAmount
+    @Description("Bytes allocated by the game thread during the move (search threads not included, -1 if not counted)")
+    public long allocated;                  //bytes allocated by the game thread
+    
+    //Method fills in the event of a move and commits it (allocated is the count when the move began)
+    public void end(String mode, String move, int depth, long nodes, long allocated)
+    {
+        if(shouldCommit())
+        {
+            this.mode = mode;
+            this.move = move;
+            this.depth = depth;
+            this.nodes = nodes;
+            long now = FlightEvents.allocatedBytes();
+            this.allocated = now < 0 || allocated < 0 ? -1 : now - allocated;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+//This class is the Java Flight Recorder event of one iteration of one search thread
+//(built only by a JDK 11 or later, created through FlightEvents)
+@Name("minichess.Iteration")
+@Label("Search Iteration")
+@Category("Mini Chess")
+@Description("One iteration of the iterative deepening of a search thread")
+public class JfrIterationEvent extends jdk.jfr.Event implements FlightEvents.IterationEvent
+{
+    @Label("Depth")
+    public int depth;                       //depth of the iteration
+    
+    @Label("Nodes")
+    public long nodes;                      //boards visited by the iteration
+    
+    @Label("Score")
+    public int score;                       //score of best move (0 if not finished)
+    
+    @Label("Finished")
+    public boolean finished;                //false if time, node limit or stop flag cut it short
+    
+    //Method fills in the event of an iteration and commits it
+    public void end(int depth, long nodes, int score, boolean finished)
+    {
+        if(shouldCommit())
+        {
+            this.depth = depth;
+            this.nodes = nodes;
+            this.score = score;
+            this.finished = finished;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+//This class is the Java Flight Recorder event of one engine search, recorded with its duration
+//(built only by a JDK 11 or later, created through FlightEvents)
+@Name("minichess.Search")
+@Label("Engine Search")
+@Category("Mini Chess")
+@Description("One search of the engine, with the counts of all its threads")
+public class JfrSearchEvent extends jdk.jfr.Event implements FlightEvents.SearchEvent
+{
+    @Label("Move")
+    public String move;                     //best move found
+    
+    @Label("Score")
+    public int score;                       //score of best move
+    
+    @Label("Depth")
+    public int depth;                       //deepest finished iteration
+    
+    @Label("Iterations")
+    public int iterations;                  //deepest iteration started
+    
+    @Label("Nodes")
+    public long nodes;                      //boards visited
+    
+    @Label("Cutoffs")
+    public long cutoffs;                    //beta cutoffs
+    
+    @Label("First Move Cutoff Rate")
+    public double firstMoveCutoffRate;      //share of cutoffs by the first move tried
+    
+    @Label("Table Hit Rate")
+    public double tableHitRate;             //share of table lookups that found the board
+    
+    @Label("From Book")
+    public boolean book;                    //move was taken from the opening book
+    
+    //Method fills in the event from the result of the search and commits it
+    public void end(SearchResult result, String move, boolean book)
+    {
+        if(shouldCommit())
+        {
+            SearchStats stats = result.stats();
+            this.move = move;
+            this.score = result.score();
+            this.depth = result.depth();
+            this.iterations = stats.iterations();
+            this.nodes = result.nodes();
+            this.cutoffs = stats.cutoffs();
+            this.firstMoveCutoffRate = stats.firstMoveCutoffRate();
+            this.tableHitRate = stats.tableHitRate();
+            this.book = book;
+            commit();
+        }
+    }
+}
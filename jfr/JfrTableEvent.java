@@ -0,0 +1,40 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+//This class is the Java Flight Recorder event of a transposition table being cleared or resized
+//(built only by a JDK 11 or later, created through FlightEvents)
+@Name("minichess.TranspositionTable")
+@Label("Transposition Table")
+@Category("Mini Chess")
+@Description("Transposition table cleared or resized")
+public class JfrTableEvent extends jdk.jfr.Event implements FlightEvents.TableEvent
+{
+    @Label("Action")
+    public String action;                   //"clear" or "resize"
+    
+    @Label("Entries")
+    public int entries;                     //entries after the action
+    
+    @Label("Previous Entries")
+    public int previousEntries;             //entries before the action
+    
+    @Label("Size")
+    @DataAmount
+    public long bytes;                      //bytes of the table after the action
+    
+    //Method fills in the event of a clear or resize and commits it
+    public void end(String action, int entries, int previousEntries, long bytes)
+    {
+        if(shouldCommit())
+        {
+            this.action = action;
+            this.entries = entries;
+            this.previousEntries = previousEntries;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}